@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Mesure le temps de démarrage et le temps jusqu'à la première réponse du profil prod,
+# en JVM classique, avec AOT, puis avec AOT + archive CDS.
+#
+#   ./scripts/startup-benchmark.sh [nombre d'essais, 5 par défaut]
+#
+# Prérequis : la base PostgreSQL de spring.datasource.url est joignable et son schéma est à jour.
+# SKIP_BUILD=1 réutilise le jar déjà construit. Les résultats sont ajoutés à
+# target/startup/results.csv (une ligne par essai, avec la version git) pour les comparer d'une release à l'autre.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8082}
+URL="http://localhost:${PORT}/api/products?limit=1"
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+OUT="$ROOT/target/startup"
+APP="$OUT/app"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cd "$ROOT"
+if [[ "${SKIP_BUILD:-0}" != "1" ]]; then
+  sh ./mvnw -B -q -Paot -DskipTests package
+fi
+
+JAR=$(ls target/sb-products-api-*.jar | head -n 1)
+rm -rf "$APP"
+mkdir -p "$OUT"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$APP" > /dev/null
+APP_JAR="$APP/$(basename "$JAR")"
+
+# Entraînement CDS : le contexte démarre puis l'application s'arrête juste après le refresh
+echo "Training CDS archive..."
+"$JAVA" -XX:ArchiveClassesAtExit="$APP/app.jsa" -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=prod -Dspring.context.exit=onRefresh -jar "$APP_JAR" > "$OUT/cds-training.log" 2>&1
+
+VERSION=$(git describe --always --dirty 2>/dev/null || echo unknown)
+RESULTS="$OUT/results.csv"
+[[ -f "$RESULTS" ]] || echo "date,version,mode,run,started_seconds,first_response_ms" > "$RESULTS"
+
+measure() {
+  local mode=$1; shift
+  for run in $(seq 1 "$RUNS"); do
+    local log="$OUT/$mode-$run.log"
+    local start; start=$(date +%s%N)
+    "$JAVA" "$@" -Dspring.profiles.active=prod -jar "$APP_JAR" > "$log" 2>&1 &
+    local pid=$!
+
+    # Toute réponse HTTP compte (même 400 sur un catalogue vide) : on mesure l'arrivée de la première réponse
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" != "000" ]]; do
+      if ! kill -0 "$pid" 2> /dev/null; then
+        echo "Application exited during startup, see $log" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    local first_response_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    local started; started=$(grep -oP 'Started \S+ in \K[0-9.]+' "$log" || echo "")
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+
+    echo "$(date -u +%FT%TZ),$VERSION,$mode,$run,$started,$first_response_ms" >> "$RESULTS"
+    printf '%-8s run %d: started in %ss, first response after %d ms\n' "$mode" "$run" "$started" "$first_response_ms"
+  done
+}
+
+measure jvm
+measure aot -Dspring.aot.enabled=true
+measure aot-cds -Dspring.aot.enabled=true -XX:SharedArchiveFile="$APP/app.jsa"
+
+echo "Results appended to $RESULTS"
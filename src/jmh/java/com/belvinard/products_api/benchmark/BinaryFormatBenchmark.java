@@ -0,0 +1,108 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.config.ProductProtobufHttpMessageConverter;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.response.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodage d'un ProductResponse de 100 000 produits dans chaque format négociable (JSON, CBOR,
+ * Smile, Protobuf), avec les mêmes encodeurs que les convertisseurs HTTP. La taille de chaque
+ * représentation est affichée au démarrage de l'essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BinaryFormatBenchmark {
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private ProductResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        smile = Jackson2ObjectMapperBuilder.smile().build();
+
+        List<Product> products = CatalogFixture.products(catalogSize);
+        List<ProductDTO> content = new ProductMapper().toDtoList(products);
+        List<String> alerts = products.stream()
+                .filter(p -> p.getStockQuantity() < 5)
+                .map(p -> "⚠️ Stock is low for product: " + p.getName())
+                .toList();
+        response = new ProductResponse(content, alerts);
+
+        System.out.printf("%nBytes for %d products: json=%d cbor=%d smile=%d protobuf=%d%n", catalogSize,
+                size(json), size(cbor), size(smile), protobufSize());
+    }
+
+    @Benchmark
+    public void json() throws IOException {
+        json.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public void cbor() throws IOException {
+        cbor.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public void smile() throws IOException {
+        smile.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public void protobuf() throws IOException {
+        writeProtobuf(OutputStream.nullOutputStream());
+    }
+
+    private long size(ObjectMapper mapper) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        mapper.writeValue(out, response);
+        return out.count;
+    }
+
+    private long protobufSize() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writeProtobuf(out);
+        return out.count;
+    }
+
+    private void writeProtobuf(OutputStream target) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(target, 8192);
+        ProductProtobufHttpMessageConverter.writeResponse(out, response);
+        out.flush();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
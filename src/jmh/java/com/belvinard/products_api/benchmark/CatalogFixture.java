@@ -0,0 +1,24 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeu de données déterministe partagé par les benchmarks : environ un produit sur quatre est en faible stock.
+ */
+final class CatalogFixture {
+
+    private CatalogFixture() {
+    }
+
+    static List<Product> products(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            products.add(new Product(i, "Product " + i, BigDecimal.valueOf(i * 7 % 100_000, 2), (int) (i % 20)));
+        }
+        return products;
+    }
+}
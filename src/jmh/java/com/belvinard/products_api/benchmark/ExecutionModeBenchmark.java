@@ -0,0 +1,186 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.config.DatabaseConcurrencyGate;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.service.ProductService;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.impl.ProductServiceImpl;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.belvinard.products_api.util.CursorCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le mode historique (pool Tomcat de 200 threads plateforme) au mode "virtual"
+ * (un thread virtuel par requête + DatabaseConcurrencyGate) pendant un incident base lente.
+ *
+ * Les requêtes base passent par le vrai ProductServiceImpl.getAllProducts, entouré en mode
+ * "virtual" par l'aspect DatabaseConcurrencyGate comme dans l'application. Le pool HikariCP est
+ * remplacé par un gestionnaire de transactions qui tient l'une des 10 connexions pendant toute la
+ * transaction (attente bornée par connection-timeout), et chaque appel au dépôt en mémoire dure 50 ms.
+ *
+ * 300 clients appellent la liste paginée, 100 autres font un GET conditionnel servi sans la base
+ * (calcul de l'ETag). Le mode SampleTime donne le p99 de chaque type de requête ; le débit
+ * se lit dans le nombre d'opérations par seconde.
+ *
+ * ./mvnw -Pbenchmark test -Djmh.args="ExecutionModeBenchmark"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int POOL_SIZE = 10;
+    private static final long QUERY_MILLIS = 50;
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Stand-in pour HikariCP : une connexion par transaction, attente bornée par connection-timeout. */
+    static final class BoundedPoolTransactionManager implements PlatformTransactionManager {
+        private final Semaphore connections = new Semaphore(POOL_SIZE, true);
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            try {
+                if (!connections.tryAcquire(CONNECTION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new CannotCreateTransactionException("Connection is not available, request timed out");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CannotCreateTransactionException("Interrupted while waiting for a connection", ex);
+            }
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            connections.release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            connections.release();
+        }
+    }
+
+    // Chaque requête du dépôt en mémoire prend QUERY_MILLIS, comme une base lente
+    static ProductRepository slowRepository(ProductRepository delegate) {
+        return (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() != Object.class) {
+                        Thread.sleep(QUERY_MILLIS);
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    @State(Scope.Benchmark)
+    public abstract static class ExecutionMode {
+        final CatalogVersion catalogVersion = new CatalogVersion();
+        ProductService productService;
+        ExecutorService requestThreads;
+
+        ProductServiceImpl newService(MeterRegistry meterRegistry, DatabaseConcurrencyGate databaseGate) {
+            ProductRepository productRepository =
+                    slowRepository(InMemoryProductRepository.create(CatalogFixture.products(CATALOG_SIZE)));
+            return new ProductServiceImpl(productRepository, new ProductMapper(), null, new ObjectMapper(),
+                    null, new BoundedPoolTransactionManager(), event -> { },
+                    new LowStockIndex(productRepository, catalogVersion, meterRegistry),
+                    new StockAlertOutbox(InMemoryProductRepository.noOpOutbox()), null, catalogVersion,
+                    meterRegistry, databaseGate);
+        }
+
+        @TearDown
+        public void tearDown() {
+            requestThreads.shutdownNow();
+        }
+
+        Object listRequest() throws Exception {
+            // Curseurs variés : les appels identiques simultanés seraient sinon regroupés par le service
+            String cursor = CursorCodec.encode(ThreadLocalRandom.current().nextLong(CATALOG_SIZE - PAGE_SIZE));
+            return requestThreads.submit(() ->
+                    productService.getAllProducts(new ProductSearchCriteria(), cursor, PAGE_SIZE)).get();
+        }
+
+        Object conditionalRequest() throws Exception {
+            return requestThreads.submit(() -> catalogVersion.etag("json")).get();
+        }
+    }
+
+    public static class PlatformMode extends ExecutionMode {
+        @Setup
+        public void setUp() {
+            productService = newService(new SimpleMeterRegistry(), null);
+            requestThreads = Executors.newFixedThreadPool(200);
+        }
+    }
+
+    public static class VirtualMode extends ExecutionMode {
+        @Setup
+        public void setUp() {
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            DatabaseConcurrencyGate databaseGate = new DatabaseConcurrencyGate(POOL_SIZE, CONNECTION_TIMEOUT, meterRegistry);
+            AspectJProxyFactory proxyFactory = new AspectJProxyFactory(newService(meterRegistry, databaseGate));
+            proxyFactory.addAspect(databaseGate);
+            productService = proxyFactory.getProxy();
+            requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+        }
+    }
+
+    @Benchmark
+    @Group("platform")
+    @GroupThreads(300)
+    public Object platformDbRequest(PlatformMode mode) throws Exception {
+        return mode.listRequest();
+    }
+
+    @Benchmark
+    @Group("platform")
+    @GroupThreads(100)
+    public Object platformCachedRequest(PlatformMode mode) throws Exception {
+        return mode.conditionalRequest();
+    }
+
+    @Benchmark
+    @Group("virtual")
+    @GroupThreads(300)
+    public Object virtualDbRequest(VirtualMode mode) throws Exception {
+        return mode.listRequest();
+    }
+
+    @Benchmark
+    @Group("virtual")
+    @GroupThreads(100)
+    public Object virtualCachedRequest(VirtualMode mode) throws Exception {
+        return mode.conditionalRequest();
+    }
+}
@@ -0,0 +1,107 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.StockAlertOutboxRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Remplaçant en mémoire de ProductRepository pour les benchmarks : seules les méthodes
+ * utilisées par ProductServiceImpl sont implémentées, les autres lèvent une exception.
+ */
+public final class InMemoryProductRepository {
+
+    private final NavigableMap<Long, Product> byId = new TreeMap<>();
+    private final Map<String, Product> byName = new HashMap<>();
+    private long sequence;
+
+    public static ProductRepository create(List<Product> catalog) {
+        InMemoryProductRepository store = new InMemoryProductRepository();
+        catalog.forEach(store::save);
+        return (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> store.invoke(method.getName(), args));
+    }
+
+    // L'outbox n'est pas mesurée ici : chaque écriture y est acceptée puis ignorée
+    public static StockAlertOutboxRepository noOpOutbox() {
+        return (StockAlertOutboxRepository) Proxy.newProxyInstance(
+                StockAlertOutboxRepository.class.getClassLoader(),
+                new Class<?>[]{StockAlertOutboxRepository.class},
+                (proxy, method, args) -> method.getReturnType() == int.class ? 1 : null);
+    }
+
+    // Pas de base derrière le dépôt : les transactions ouvertes par le service ne font rien
+    public static PlatformTransactionManager noOpTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    private Object invoke(String method, Object[] args) {
+        return switch (method) {
+            case "save", "saveAndFlush" -> save((Product) args[0]);
+            case "findById", "findByProductId" -> Optional.ofNullable(byId.get((Long) args[0]));
+            case "findByName" -> byName.get((String) args[0]);
+            case "findAll" -> new ArrayList<>(byId.values());
+            case "count" -> (long) byId.size();
+            case "findByStockQuantityLessThan" -> byId.values().stream()
+                    .filter(p -> p.getStockQuantity() < (Integer) args[0])
+                    .toList();
+            case "findLowStockProductIds" -> byId.values().stream()
+                    .filter(p -> p.getStockQuantity() < Product.LOW_STOCK_THRESHOLD)
+                    .map(Product::getProductId)
+                    .toList();
+            case "findByProductIdGreaterThanOrderByProductIdAsc" -> byId.tailMap((Long) args[0], false)
+                    .values().stream()
+                    .limit(((Limit) args[1]).max())
+                    .toList();
+            case "delete" -> {
+                Product product = (Product) args[0];
+                byId.remove(product.getProductId());
+                byName.remove(product.getName());
+                yield null;
+            }
+            case "hashCode" -> System.identityHashCode(this);
+            case "equals" -> false;
+            case "toString" -> "InMemoryProductRepository[" + byId.size() + "]";
+            default -> throw new UnsupportedOperationException(method);
+        };
+    }
+
+    private Product save(Product product) {
+        if (product.getProductId() == null) {
+            product.setProductId(++sequence);
+        } else {
+            sequence = Math.max(sequence, product.getProductId());
+        }
+        byId.put(product.getProductId(), product);
+        byName.put(product.getName(), product);
+        return product;
+    }
+}
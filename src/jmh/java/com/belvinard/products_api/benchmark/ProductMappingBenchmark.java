@@ -0,0 +1,54 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le ProductMapper écrit à la main avec l'ancien ModelMapper réflexif
+ * sur la conversion d'une page de produits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private List<Product> products;
+    private ProductMapper productMapper;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapper();
+        modelMapper = new ModelMapper();
+        products = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            products.add(new Product(i, "Product " + i, BigDecimal.valueOf(i * 7, 2), (int) (i % 20)));
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> productMapper() {
+        return productMapper.toDtoList(products);
+    }
+
+    @Benchmark
+    public List<ProductDTO> modelMapper() {
+        return products.stream()
+                .map(product -> modelMapper.map(product, ProductDTO.class))
+                .toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.response.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson d'un ProductResponse, avec un ObjectMapper configuré comme celui de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductResponseSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ObjectMapper objectMapper;
+    private ProductResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Product> products = CatalogFixture.products(catalogSize);
+        List<ProductDTO> content = new ProductMapper().toDtoList(products);
+        List<String> alerts = products.stream()
+                .filter(p -> p.getStockQuantity() < 5)
+                .map(p -> "⚠️ Stock is low for product: " + p.getName())
+                .toList();
+        response = new ProductResponse(content, alerts);
+    }
+
+    @Benchmark
+    public void serializeProductResponse() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
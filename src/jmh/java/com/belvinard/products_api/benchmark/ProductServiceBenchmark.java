@@ -0,0 +1,89 @@
+package com.belvinard.products_api.benchmark;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductResponseDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.impl.ProductServiceImpl;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins chauds de ProductServiceImpl sur un dépôt en mémoire : conversion entité -> DTO,
+ * parcours complet du catalogue par pages (avec construction des alertes) et création d'un produit.
+ * Le dépôt est recréé à chaque itération à partir du même catalogue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductServiceBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private List<Product> catalog;
+    private ProductMapper productMapper;
+    private ProductServiceImpl productService;
+    private long createdProducts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = CatalogFixture.products(catalogSize);
+        productMapper = new ProductMapper();
+    }
+
+    // Dépôt et service neufs à chaque itération : les produits créés par createLowStockProduct
+    // ne s'accumulent pas et le parcours des pages porte toujours sur catalogSize produits
+    @Setup(Level.Iteration)
+    public void resetCatalog() {
+        ProductRepository productRepository = InMemoryProductRepository.create(catalog);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogVersion catalogVersion = new CatalogVersion();
+        productService = new ProductServiceImpl(productRepository, productMapper, null, new ObjectMapper(),
+                null, InMemoryProductRepository.noOpTransactionManager(), event -> { },
+                new LowStockIndex(productRepository, catalogVersion, meterRegistry),
+                new StockAlertOutbox(InMemoryProductRepository.noOpOutbox()), null, catalogVersion,
+                meterRegistry, null);
+    }
+
+    @Benchmark
+    public List<ProductDTO> mapCatalog() {
+        return productMapper.toDtoList(catalog);
+    }
+
+    @Benchmark
+    public void getAllProductsAllPages(Blackhole blackhole) {
+        String cursor = null;
+        do {
+            ProductResponse page = productService.getAllProducts(new ProductSearchCriteria(), cursor, PAGE_SIZE);
+            blackhole.consume(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public ProductResponseDTO createLowStockProduct() {
+        ProductDTO productDTO = new ProductDTO(null, "New " + (++createdProducts), new BigDecimal("9.99"), 2);
+        return productService.createProduct(productDTO);
+    }
+}
@@ -0,0 +1,18 @@
+package com.belvinard.products_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Active le cache de lecture. Le CacheManager Caffeine est configuré par
+ * spring.cache.* dans application.properties. Le cache est consulté avant
+ * tous les autres intercepteurs : un hit ne passe ni par la porte de
+ * concurrence ni par une transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+}
@@ -0,0 +1,54 @@
+package com.belvinard.products_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "products.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${products.concurrency-limit.read.initial-limit}") int readInitialLimit,
+            @Value("${products.concurrency-limit.read.max-limit}") int readMaxLimit,
+            @Value("${products.concurrency-limit.read.latency-threshold}") Duration readLatencyThreshold,
+            @Value("${products.concurrency-limit.write.initial-limit}") int writeInitialLimit,
+            @Value("${products.concurrency-limit.write.max-limit}") int writeMaxLimit,
+            @Value("${products.concurrency-limit.write.latency-threshold}") Duration writeLatencyThreshold,
+            @Value("${products.concurrency-limit.min-limit}") int minLimit,
+            @Value("${products.concurrency-limit.backoff-ratio}") double backoffRatio,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter reads = register(meterRegistry, new AdaptiveConcurrencyLimiter(
+                "read", readInitialLimit, minLimit, readMaxLimit, readLatencyThreshold, backoffRatio));
+        AdaptiveConcurrencyLimiter writes = register(meterRegistry, new AdaptiveConcurrencyLimiter(
+                "write", writeInitialLimit, minLimit, writeMaxLimit, writeLatencyThreshold, backoffRatio));
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(reads, writes, objectMapper, meterRegistry));
+        registration.addUrlPatterns(ConcurrencyLimitFilter.PATH_PREFIX, ConcurrencyLimitFilter.PATH_PREFIX + "/*");
+        // Après le filtre d'observation HTTP : les refus apparaissent dans http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter register(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("products.concurrency_limit.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", limiter.name())
+                .register(meterRegistry);
+        Gauge.builder("products.concurrency_limit.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently admitted by the adaptive concurrency limit")
+                .tag("group", limiter.name())
+                .register(meterRegistry);
+        return limiter;
+    }
+}
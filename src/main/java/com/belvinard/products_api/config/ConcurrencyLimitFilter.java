@@ -0,0 +1,93 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.response.MyErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Applique les limites adaptatives devant ProductController : une limite pour les lectures
+ * (GET, HEAD), une autre pour les écritures, pour qu'une rafale d'écritures lentes n'affame pas
+ * les lectures. Une requête refusée reçoit immédiatement 503 avec Retry-After.
+ *
+ * Les flux longs (export, import, flux de changements) sont exclus : leur durée ne dit rien
+ * de la santé de la base.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String PATH_PREFIX = "/api/products";
+    private static final Set<String> EXCLUDED_PATHS = Set.of(
+            PATH_PREFIX + "/export",
+            PATH_PREFIX + "/import",
+            PATH_PREFIX + "/changes");
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.objectMapper = objectMapper;
+        this.readRejections = rejections(meterRegistry, readLimiter);
+        this.writeRejections = rejections(meterRegistry, writeLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(PATH_PREFIX) || EXCLUDED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new MyErrorResponses("SERVICE_UNAVAILABLE", "The service is overloaded, please retry later."));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        return Counter.builder("products.concurrency_limit.rejected")
+                .description("Requests rejected by the adaptive concurrency limit")
+                .tag("group", limiter.name())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limite le nombre d'appels simultanés à ProductService à la taille du pool de connexions.
+ * Avec des threads virtuels, des milliers de requêtes peuvent attendre ici pour presque rien,
+ * au lieu d'expirer dans HikariCP après connection-timeout.
+ *
+ * La porte entoure l'appel de service complet (à l'extérieur de la transaction) : un permis
+ * couvre toute la durée pendant laquelle la connexion est tenue.
+ *
+ * Les lectures regroupées (getAllProducts, getLowStockProducts) sont exclues du pointcut : seul
+ * l'appel meneur interroge la base, et il passe par call(). Les appels qui attendent son résultat
+ * ne prennent pas de permis.
+ *
+ * L'export et l'import CSV sont aussi exclus, comme dans ConcurrencyLimitFilter : ils
+ * tiennent leur connexion pendant tout le flux ou le COPY, parfois plusieurs minutes, et
+ * priveraient les requêtes courtes d'un des rares permis.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "products.db-gate.enabled", havingValue = "true")
+public class DatabaseConcurrencyGate {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public DatabaseConcurrencyGate(@Value("${products.db-gate.max-concurrency}") int maxConcurrency,
+                                   @Value("${products.db-gate.acquire-timeout}") Duration acquireTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+        Gauge.builder("products.db_gate.waiting", this, DatabaseConcurrencyGate::queueLength)
+                .description("Service calls waiting for a database slot")
+                .register(meterRegistry);
+        Gauge.builder("products.db_gate.available", this, DatabaseConcurrencyGate::availablePermits)
+                .description("Free database slots")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.belvinard.products_api.service.ProductService.*(..))"
+            + " && !execution(* com.belvinard.products_api.service.ProductService.getAllProducts(..))"
+            + " && !execution(* com.belvinard.products_api.service.ProductService.getLowStockProducts(..))"
+            + " && !execution(* com.belvinard.products_api.service.ProductService.exportProducts(..))"
+            + " && !execution(* com.belvinard.products_api.service.ProductService.importProducts(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public <T> T call(Supplier<T> work) {
+        acquire();
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for a database slot.", 1);
+        }
+        if (!acquired) {
+            throw new ServiceBusyException("The database is saturated, please retry later.", 1);
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+}
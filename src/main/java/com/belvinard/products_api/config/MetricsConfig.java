@@ -0,0 +1,20 @@
+package com.belvinard.products_api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métriques applicatives. Les requêtes HTTP, les appels aux repositories Spring Data
+ * et le pool HikariCP sont instrumentés automatiquement par Spring Boot ; les méthodes
+ * annotées @Timed (ProductServiceImpl) le sont grâce à TimedAspect.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,183 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.response.ProductResponse;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Écrit ProductResponse, ProductDTO et List<ProductDTO> (message ProductList, GET /low-stock)
+ * en application/x-protobuf, selon le schéma de src/main/proto/products.proto. L'encodage est
+ * fait à la main avec CodedOutputStream pour éviter une étape de génération de code ; le
+ * convertisseur ne sait qu'écrire.
+ *
+ * Une liste n'est reconnue qu'à partir du type déclaré par le contrôleur (List<ProductDTO>) :
+ * la classe seule ne dit rien de ses éléments.
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public ProductProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ProductResponse.class || ProductDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (isProductList(type) || supports(clazz)) && canWrite(mediaType);
+    }
+
+    // Spring MVC demande aussi les types de média pour la classe seule (ArrayList...) après canWrite(Type, ...)
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    private static boolean isProductList(Type type) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        if (!List.class.isAssignableFrom(resolved.toClass())) {
+            return false;
+        }
+        Class<?> element = resolved.asCollection().resolveGeneric(0);
+        return element != null && ProductDTO.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        if (value instanceof ProductResponse response) {
+            writeResponse(out, response);
+        } else if (value instanceof List<?> products) {
+            writeProductList(out, products);
+        } else {
+            writeProduct(out, (ProductDTO) value);
+        }
+        out.flush();
+    }
+
+    // message ProductList : chaque produit en champ 1 répété, comme content dans ProductResponse
+    public static void writeProductList(CodedOutputStream out, List<?> products) throws IOException {
+        for (Object product : products) {
+            writeNestedProduct(out, 1, (ProductDTO) product);
+        }
+    }
+
+    public static void writeResponse(CodedOutputStream out, ProductResponse response) throws IOException {
+        if (response.getContent() != null) {
+            for (ProductDTO product : response.getContent()) {
+                writeNestedProduct(out, 1, product);
+            }
+        }
+        if (response.getAlerts() != null) {
+            for (String alert : response.getAlerts()) {
+                out.writeString(2, alert);
+            }
+        }
+        if (response.getNextCursor() != null) {
+            out.writeString(3, response.getNextCursor());
+        }
+    }
+
+    private static void writeNestedProduct(CodedOutputStream out, int fieldNumber, ProductDTO product)
+            throws IOException {
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(productSize(product));
+        writeProduct(out, product);
+    }
+
+    public static void writeProduct(CodedOutputStream out, ProductDTO product) throws IOException {
+        if (product.getId() != null) {
+            out.writeInt64(1, product.getId());
+        }
+        if (product.getName() != null) {
+            out.writeString(2, product.getName());
+        }
+        BigDecimal price = product.getPrice();
+        if (price != null) {
+            if (fitsInLong(price)) {
+                out.writeSInt64(3, price.unscaledValue().longValue());
+                out.writeInt32(4, price.scale());
+            } else {
+                out.writeString(7, price.toPlainString());
+            }
+        }
+        if (product.getStockQuantity() != null) {
+            out.writeInt32(5, product.getStockQuantity());
+        }
+        if (product.getVersion() != null) {
+            out.writeInt64(6, product.getVersion());
+        }
+    }
+
+    // Taille du message Product, nécessaire pour le préfixe de longueur du champ répété
+    private static int productSize(ProductDTO product) {
+        int size = 0;
+        if (product.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(1, product.getId());
+        }
+        if (product.getName() != null) {
+            size += CodedOutputStream.computeStringSize(2, product.getName());
+        }
+        BigDecimal price = product.getPrice();
+        if (price != null) {
+            if (fitsInLong(price)) {
+                size += CodedOutputStream.computeSInt64Size(3, price.unscaledValue().longValue());
+                size += CodedOutputStream.computeInt32Size(4, price.scale());
+            } else {
+                size += CodedOutputStream.computeStringSize(7, price.toPlainString());
+            }
+        }
+        if (product.getStockQuantity() != null) {
+            size += CodedOutputStream.computeInt32Size(5, product.getStockQuantity());
+        }
+        if (product.getVersion() != null) {
+            size += CodedOutputStream.computeInt64Size(6, product.getVersion());
+        }
+        return size;
+    }
+
+    private static boolean fitsInLong(BigDecimal price) {
+        return price.unscaledValue().bitLength() < 64;
+    }
+}
@@ -0,0 +1,56 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active un réplica en lecture (products.datasource.replica.enabled=true).
+ * Le primaire reste configuré par spring.datasource.*, le réplica par products.datasource.replica.*
+ * (url, username et password, par défaut ceux du primaire, hikari.*). Sans cette propriété, Spring Boot crée le pool unique habituel.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "products.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("products.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${products.datasource.replica.url}") String url,
+                                              @Value("${products.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${products.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${products.datasource.replica.read-your-writes-window}") Duration readYourWritesWindow,
+                                 CatalogVersion catalogVersion) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow,
+                catalogVersion::current));
+    }
+}
@@ -0,0 +1,83 @@
+package com.belvinard.products_api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Envoie les transactions en lecture seule (@Transactional(readOnly = true)) vers le réplica
+ * et tout le reste vers le primaire.
+ *
+ * Lecture de ses propres écritures : pendant readYourWritesWindow après le commit d'une
+ * transaction d'écriture, les lectures restent sur le primaire, le temps que le réplica rattrape
+ * son retard. La fenêtre est globale à l'instance (une écriture renvoie toutes les lectures
+ * vers le primaire) et doit couvrir le retard de réplication habituel ; Duration.ZERO la désactive.
+ *
+ * La fenêtre s'ouvre aussi quand la version du catalogue change, y compris pour une écriture faite
+ * par une autre instance (notification products_changes). Les endpoints à ETag lisent la version
+ * avant la requête : servie par un réplica en retard, la page porterait l'ETag de la nouvelle version
+ * avec les données de l'ancienne, et le client recevrait ensuite des 304 sur un contenu périmé.
+ *
+ * Doit être enveloppée dans une LazyConnectionDataSourceProxy : les gestionnaires de transaction
+ * demandent la connexion avant que le drapeau read-only de la transaction ne soit positionné.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {PRIMARY, REPLICA}
+
+    private final long readYourWritesWindowNanos;
+    private final LongSupplier catalogVersion;
+    private final AtomicLong lastWriteCommit = new AtomicLong();
+    private final AtomicLong lastSeenCatalogVersion = new AtomicLong();
+    private volatile boolean written;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this(primary, replica, readYourWritesWindow, () -> 0L);
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+                                      LongSupplier catalogVersion) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.catalogVersion = catalogVersion;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return recentlyWritten() ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWritten();
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+
+    private void markWritten() {
+        lastWriteCommit.set(System.nanoTime());
+        written = true;
+    }
+
+    private boolean recentlyWritten() {
+        // La fenêtre part du moment où le changement de version est vu ici, jamais avant le commit
+        long version = catalogVersion.getAsLong();
+        long seen = lastSeenCatalogVersion.get();
+        if (version != seen && lastSeenCatalogVersion.compareAndSet(seen, version)) {
+            markWritten();
+        }
+        return written && System.nanoTime() - lastWriteCommit.get() < readYourWritesWindowNanos;
+    }
+}
@@ -1,13 +1,28 @@
 package com.belvinard.products_api.controller;
 
+import com.belvinard.products_api.config.ProductProtobufHttpMessageConverter;
+import com.belvinard.products_api.dto.InventoryStatsDTO;
 import com.belvinard.products_api.dto.ProductDTO;
 import com.belvinard.products_api.dto.ProductResponseDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.dto.StockAdjustmentDTO;
+import com.belvinard.products_api.dto.StockDeltaDTO;
 import com.belvinard.products_api.exceptions.APIException;
 import com.belvinard.products_api.exceptions.DuplicateResourceException;
+import com.belvinard.products_api.exceptions.InsufficientStockException;
 import com.belvinard.products_api.exceptions.ResourceNotFoundException;
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import com.belvinard.products_api.repository.ProductField;
+import com.belvinard.products_api.repository.ProductSort;
 import com.belvinard.products_api.response.MyErrorResponses;
+import com.belvinard.products_api.response.ProductBatchResponse;
 import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.response.StockAdjustmentResponse;
 import com.belvinard.products_api.service.ProductService;
+import com.belvinard.products_api.service.changes.ProductChangeFeed;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.ProductNameIndex;
+import com.belvinard.products_api.service.stats.InventoryStats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -18,25 +33,65 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
+@Validated
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final ProductNameIndex productNameIndex;
+    private final InventoryStats inventoryStats;
+    private final ProductChangeFeed productChangeFeed;
 
-    public ProductController(ProductService productService) {
+    private static final MediaType JSON = MediaType.APPLICATION_JSON;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    // Même ordre que les convertisseurs de Spring MVC : JSON d'abord, puis Smile, CBOR et Protobuf
+    private static final List<MediaType> REPRESENTATIONS = List.of(
+            JSON,
+            new MediaType("application", "x-jackson-smile"),
+            MediaType.APPLICATION_CBOR,
+            ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    public ProductController(ProductService productService, CatalogVersion catalogVersion,
+                             ProductNameIndex productNameIndex, InventoryStats inventoryStats,
+                             ProductChangeFeed productChangeFeed) {
         this.productService = productService;
+        this.catalogVersion = catalogVersion;
+        this.productNameIndex = productNameIndex;
+        this.inventoryStats = inventoryStats;
+        this.productChangeFeed = productChangeFeed;
     }
 
     // =================== CREATE PRODUCT ======================= /
@@ -114,14 +169,102 @@ public class ProductController {
         }
     }
 
+    // =================== CREATE PRODUCTS (BATCH) ======================= /
+
+    @Operation(
+            summary = "Créer plusieurs produits en une seule requête",
+            description = """
+        Crée jusqu’à 1000 produits en une seule requête. Les insertions sont envoyées à la base par lots JDBC.
+        
+        Le lot n’échoue jamais en bloc : chaque élément reçoit son propre résultat (`index` = position dans la requête) :
+        - `CREATED` : produit créé
+        - `DUPLICATE_NAME` : un produit portant ce nom existe déjà (en base ou plus haut dans le lot)
+        - `VALIDATION_ERROR` : champs invalides, détaillés dans `errors`
+        """
+            )
+            @ApiResponses(value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Résultat par produit",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ProductBatchResponse.class),
+                                    examples = @ExampleObject(value = """
+            {
+              "created": 1,
+              "failed": 2,
+              "results": [
+                {
+                  "index": 0,
+                  "status": "CREATED",
+                  "product": { "id": 51, "name": "Laptop", "price": 799.99, "stockQuantity": 3 },
+                  "alert": "⚠️ Stock is low for product: Laptop"
+                },
+                {
+                  "index": 1,
+                  "status": "DUPLICATE_NAME",
+                  "product": { "name": "Smartphone", "price": 499.99, "stockQuantity": 10 },
+                  "errors": { "name": "A product with the name 'Smartphone' already exists." }
+                },
+                {
+                  "index": 2,
+                  "status": "VALIDATION_ERROR",
+                  "product": { "name": "TV", "price": -1, "stockQuantity": 10 },
+                  "errors": {
+                    "name": "Product's name must be 3-30 characters",
+                    "price": "Price must be positive"
+                  }
+                }
+              ]
+            }
+            """)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Lot vide ou trop volumineux",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(value = """
+            {
+              "status": "BAD_REQUEST",
+              "message": "A batch cannot contain more than 1000 products."
+            }
+            """)
+                            )
+                    )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> createProducts(@RequestBody List<ProductDTO> productDTOs) {
+        ProductBatchResponse response = productService.createProducts(productDTOs);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     // =================== GET ALL PRODUCTS ======================= /
     @Operation(
             summary = "Récupérer tous les produits",
             description = """
-            Récupère la liste complète des produits disponibles dans l’inventaire.
+            Récupère les produits de l’inventaire page par page (pagination par curseur).
             Chaque produit contient un identifiant, un nom, un prix et une quantité de stock.
             
-            S’il y a des produits dont le stock est bas, un message d’alerte s’affiche également dans la réponse.
+            - `limit` : nombre maximum de produits par page (1 à 500, 50 par défaut)
+            - `cursor` : curseur opaque renvoyé dans `nextCursor` par la page précédente
+            - `minPrice`, `maxPrice` : bornes (incluses) du prix
+            - `minStock`, `maxStock` : bornes (incluses) de la quantité en stock
+            - `sort` : `ID` (défaut), `PRICE_ASC`, `PRICE_DESC`, `NAME` ou `STOCK`
+            - `fields` : champs à renvoyer parmi `id`, `name`, `price`, `stockQuantity`, `version`
+              (par ex. `fields=id,stockQuantity`) ; seules ces colonnes sont lues en base.
+              Les alertes ne sont calculées que si `name` et `stockQuantity` en font partie.
+            
+            `nextCursor` vaut `null` sur la dernière page. Un curseur n’est valable que pour le tri qui l’a produit ;
+            les filtres doivent rester identiques d’une page à l’autre.
+            S’il y a des produits dont le stock est bas dans la page, un message d’alerte s’affiche également dans la réponse.
+            
+            La réponse porte un `ETag` : en le renvoyant dans `If-None-Match`, le client reçoit `304 Not Modified`
+            tant que le catalogue n’a pas changé.
+            
+            Formats (en-tête `Accept`) : `application/json` (défaut), `application/cbor`, `application/x-jackson-smile`
+            ou `application/x-protobuf` (schéma : `src/main/proto/products.proto`).
             """
                 )
                 @ApiResponses(value = {
@@ -155,7 +298,8 @@ public class ProductController {
               ],
               "alerts": [
                 "⚠️ Stock is low for product: Smartphone"
-              ]
+              ],
+              "nextCursor": "Mw"
             }
             """)
                                 )
@@ -163,13 +307,182 @@ public class ProductController {
                         @ApiResponse(
                                 responseCode = "204",
                                 description = "Aucun produit disponible"
+                        ),
+                        @ApiResponse(
+                                responseCode = "304",
+                                description = "Catalogue inchangé depuis l’ETag fourni dans If-None-Match"
                         )
     })
     @GetMapping
-    public ResponseEntity<ProductResponse> getAllProducts() {
-        ProductResponse productResponse = productService.getAllProducts();
-        return new  ResponseEntity<>(productResponse, HttpStatus.OK);
+    public ResponseEntity<ProductResponse> getAllProducts(
+            @Parameter(description = "Nombre maximum de produits par page", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @Parameter(description = "Curseur opaque de la page suivante (champ `nextCursor`)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Prix minimum (inclus)", example = "100")
+            @RequestParam(required = false) @PositiveOrZero BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)", example = "500")
+            @RequestParam(required = false) @PositiveOrZero BigDecimal maxPrice,
+            @Parameter(description = "Stock minimum (inclus)", example = "1")
+            @RequestParam(required = false) @PositiveOrZero Integer minStock,
+            @Parameter(description = "Stock maximum (inclus)", example = "10")
+            @RequestParam(required = false) @PositiveOrZero Integer maxStock,
+            @Parameter(description = "Ordre de tri", example = "PRICE_ASC")
+            @RequestParam(defaultValue = "ID") ProductSort sort,
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,stockQuantity")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<ProductField> selectedFields = ProductField.parse(fields);
+        String etag = catalogVersion.etag(representation(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        ProductResponse productResponse = productService.getAllProducts(
+                new ProductSearchCriteria(minPrice, maxPrice, minStock, maxStock, sort), cursor, limit, selectedFields);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(productResponse);
+
+    }
+
+    // =================== EXPORT PRODUCTS ======================= /
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exporter tout le catalogue (NDJSON)",
+            description = """
+            Exporte l’intégralité des produits au format `application/x-ndjson` : un objet JSON par ligne.
+            
+            Les lignes sont lues par curseur et écrites directement dans la réponse au fur et à mesure,
+            la mémoire utilisée reste donc constante quelle que soit la taille du catalogue.
+            Destiné aux synchronisations nocturnes (moteur de recherche, ERP).
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Flux NDJSON des produits",
+                                content = @Content(
+                                        mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                        examples = @ExampleObject(value = """
+            {"id":1,"name":"Smartphone","price":499.99,"stockQuantity":4}
+            {"id":2,"name":"Tablet","price":299.99,"stockQuantity":15}
+            """)
+                                )
+                        )
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = productService::exportProducts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // =================== IMPORT PRODUCTS ======================= /
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "text/csv")
+    @Operation(
+            summary = "Importer un catalogue CSV",
+            description = """
+            Importe un fichier CSV (champ multipart `file`) dont l’en-tête contient les colonnes
+            `name`, `price` et `stockQuantity`, dans n’importe quel ordre.
+            
+            - Chaque ligne est validée avec les mêmes règles que la création d’un produit.
+            - Les lignes valides sont chargées par `COPY` dans une table temporaire puis fusionnées :
+              un nom inconnu crée le produit, un nom existant met à jour son prix et son stock.
+              Si un nom apparaît plusieurs fois, la dernière ligne l’emporte.
+            - Le fichier et la réponse sont traités en flux : la mémoire reste constante.
+            
+            La réponse est le fichier CSV des lignes rejetées (numéro de ligne, valeurs, erreur),
+            terminé par une ligne de bilan `# rows=…,rejected=…,created=…,updated=…` une fois l’import commité.
+            L’import est tout ou rien : sans ligne de bilan, aucun produit n’a été modifié.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Fichier des lignes rejetées suivi du bilan",
+                                content = @Content(
+                                        mediaType = "text/csv",
+                                        examples = @ExampleObject(value = """
+            line,name,price,stockQuantity,error
+            4,TV,-3,2,name: Product's name must be 3-30 characters; price: Price must be positive
+            # rows=3,rejected=1,created=1,updated=1
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "400",
+                                description = "Fichier vide ou en-tête sans les colonnes attendues"
+                        )
+    })
+    public ResponseEntity<StreamingResponseBody> importProducts(
+            @Parameter(description = "Fichier CSV à importer")
+            @RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new APIException("The CSV file is empty.");
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream csv = file.getInputStream()) {
+                productService.importProducts(csv, outputStream);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors.csv\"")
+                .body(body);
+    }
+
+    // =================== GET PRODUCT BY ID ======================= /
 
+    @GetMapping("/{productId}")
+    @Operation(
+            summary = "Récupérer un produit par son identifiant",
+            description = """
+            Retourne un seul produit à partir de son identifiant (`productId`).
+            
+            ⚡ Les lectures sont servies par un cache en mémoire (taille bornée, expiration après 10 minutes),
+            rafraîchi à chaque mise à jour et invalidé à chaque suppression.
+            
+            Formats (en-tête `Accept`) : `application/json` (défaut), `application/cbor`, `application/x-jackson-smile`
+            ou `application/x-protobuf` (schéma : `src/main/proto/products.proto`).
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Produit trouvé",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = ProductDTO.class),
+                                        examples = @ExampleObject(value = """
+            {
+              "id": 1,
+              "name": "Smartphone",
+              "price": 499.99,
+              "stockQuantity": 4
+            }
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "404",
+                                description = "Produit introuvable",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        examples = @ExampleObject(value = """
+            {
+              "status": "NOT_FOUND",
+              "message": "Product not found with productId : 42"
+            }
+            """)
+                                )
+                        )
+    })
+    public ResponseEntity<ProductDTO> getProductById(
+            @Parameter(description = "ID du produit", example = "1")
+            @PathVariable Long productId) {
+        ProductDTO productDTO = productService.getProductById(productId);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productDTO);
     }
 
     // =================== UPDATE PRODUCT ======================= /
@@ -183,6 +496,7 @@ public class ProductController {
             - `name` (nom unique du produit)
             - `price` (prix du produit)
             - `stockQuantity` (quantité en stock)
+            - `version` (optionnel) : version lue précédemment ; si le produit a changé depuis, la mise à jour est refusée (409)
             
             Le champ `id` n’est pas requis dans le corps. L’identifiant est passé dans l’URL.
             """
@@ -245,6 +559,151 @@ public class ProductController {
         }
     }
 
+    // =================== RESERVE / RELEASE STOCK ======================= /
+
+    @PostMapping("/{productId}/stock/reserve")
+    @Operation(
+            summary = "Réserver du stock",
+            description = """
+            Décrémente atomiquement le stock d’un produit (par exemple lors d’un paiement).
+            La réservation n’est appliquée que si le stock disponible est suffisant : aucune mise à jour
+            n’est perdue même avec de nombreuses réservations simultanées.
+            
+            Une alerte est renvoyée si le stock passe sous le seuil de 5 unités.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Stock réservé",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = ProductResponseDTO.class),
+                                        examples = @ExampleObject(value = """
+            {
+              "product": { "id": 1, "name": "Smartphone", "price": 499.99, "stockQuantity": 3, "version": 8 },
+              "alert": "⚠️ Stock is low for product: Smartphone"
+            }
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "404",
+                                description = "Produit introuvable"
+                        ),
+                        @ApiResponse(
+                                responseCode = "409",
+                                description = "Stock insuffisant",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        examples = @ExampleObject(value = """
+            {
+              "status": "CONFLICT",
+              "message": "Not enough stock to reserve 5 unit(s) of product 1."
+            }
+            """)
+                                )
+                        )
+    })
+    public ResponseEntity<ProductResponseDTO> reserveStock(
+            @Parameter(description = "ID du produit", example = "1")
+            @PathVariable Long productId,
+            @Valid @RequestBody StockAdjustmentDTO stockAdjustmentDTO) {
+        ProductResponseDTO response = productService.reserveStock(productId, stockAdjustmentDTO.getQuantity());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{productId}/stock/release")
+    @Operation(
+            summary = "Libérer du stock",
+            description = """
+            Réincrémente atomiquement le stock d’un produit (par exemple après l’annulation d’une commande).
+            La libération est refusée si le stock dépasserait la valeur maximale (2 147 483 647).
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Stock libéré",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = ProductResponseDTO.class)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "400",
+                                description = "Le stock dépasserait la valeur maximale",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        examples = @ExampleObject(value = """
+            {
+              "status": "BAD_REQUEST",
+              "message": "Releasing 5 unit(s) would exceed the maximum stock of product 1."
+            }
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "404",
+                                description = "Produit introuvable"
+                        )
+    })
+    public ResponseEntity<ProductResponseDTO> releaseStock(
+            @Parameter(description = "ID du produit", example = "1")
+            @PathVariable Long productId,
+            @Valid @RequestBody StockAdjustmentDTO stockAdjustmentDTO) {
+        ProductResponseDTO response = productService.releaseStock(productId, stockAdjustmentDTO.getQuantity());
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/stock")
+    @Operation(
+            summary = "Ajuster le stock de plusieurs produits",
+            description = """
+            Applique une liste de variations `{productId, delta}` (jusqu’à 10 000) dans une seule transaction :
+            les lignes sont verrouillées par id croissant, puis modifiées en une seule requête SQL.
+            Les variations d’un même produit sont additionnées.
+            
+            Un ajustement qui rendrait le stock négatif ou supérieur à 2 147 483 647, ou qui vise un produit
+            inexistant, est refusé individuellement (`INSUFFICIENT_STOCK`, `STOCK_OUT_OF_RANGE`, `NOT_FOUND`)
+            sans bloquer les autres.
+            La réponse donne pour chaque produit le stock avant / après, ainsi que les produits
+            passés sous le seuil de faible stock (`enteredLowStock`) ou repassés au-dessus (`leftLowStock`).
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Résultat de chaque ajustement",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = StockAdjustmentResponse.class),
+                                        examples = @ExampleObject(value = """
+            {
+              "applied": 1,
+              "failed": 1,
+              "results": [
+                { "productId": 1, "delta": -3, "status": "APPLIED", "previousStockQuantity": 6, "stockQuantity": 3 },
+                { "productId": 2, "delta": -20, "status": "INSUFFICIENT_STOCK", "previousStockQuantity": 15,
+                  "stockQuantity": 15, "error": "Stock would become negative: 15 in stock, delta -20" }
+              ],
+              "enteredLowStock": [1],
+              "leftLowStock": []
+            }
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "400",
+                                description = "Liste vide, trop longue ou élément incomplet"
+                        )
+    })
+    public ResponseEntity<StockAdjustmentResponse> adjustStock(
+            @RequestBody @Size(min = 1, max = 10_000) List<@Valid StockDeltaDTO> deltas) {
+        StockAdjustmentResponse response = productService.adjustStock(deltas);
+        return ResponseEntity.ok(response);
+    }
+
     // =================== DELETE PRODUCT ======================= /
 
     @DeleteMapping("/{productId}")
@@ -305,6 +764,9 @@ public class ProductController {
             Retourne la liste des produits dont la quantité en stock est inférieure à 5 unités.
             
             📦 Utile pour le réapprovisionnement et la gestion des alertes de stock.
+            
+            Comme la liste des produits, la réponse porte un `ETag` utilisable avec `If-None-Match` (304)
+            et accepte le paramètre `fields` (par ex. `fields=id,stockQuantity`).
             """
                 )
                 @ApiResponses(value = {
@@ -333,11 +795,207 @@ public class ProductController {
                         @ApiResponse(
                                 responseCode = "204",
                                 description = "Aucun produit en faible stock"
+                        ),
+                        @ApiResponse(
+                                responseCode = "304",
+                                description = "Liste inchangée depuis l’ETag fourni dans If-None-Match"
+                        ),
+                        @ApiResponse(
+                                responseCode = "503",
+                                description = "Index du faible stock en cours de chargement au démarrage (voir Retry-After)"
+                        )
+    })
+    public ResponseEntity<List<ProductDTO>> getLowStockProducts(
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,stockQuantity")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<ProductField> selectedFields = ProductField.parse(fields);
+        String etag = catalogVersion.etag(representation(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        List<ProductDTO> lowStockProducts = productService.getLowStockProducts(selectedFields);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(lowStockProducts);
+    }
+
+
+    // =================== SEARCH / SUGGEST ======================= /
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Rechercher des produits par nom",
+            description = """
+            Recherche les produits dont le nom contient `q` (insensible à la casse), triés par nom.
+            La recherche est servie par un index trigramme PostgreSQL (pg_trgm) : `q` doit faire au moins 3 caractères
+            sans compter les espaces en début et en fin.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Produits correspondants",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "400",
+                                description = "Paramètre `q` trop court ou trop long"
+                        )
+    })
+    public ResponseEntity<List<ProductDTO>> searchProducts(
+            @Parameter(description = "Texte à rechercher dans le nom", example = "phone")
+            @RequestParam @Size(min = 3, max = 30) String q,
+            @Parameter(description = "Nombre maximum de résultats", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Autocomplétion des noms de produits",
+            description = """
+            Retourne les noms de produits commençant par `prefix` (insensible à la casse), par ordre alphabétique.
+            
+            ⚡ Servi depuis un index en mémoire tenu à jour à chaque écriture : aucune requête en base.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Noms suggérés",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        examples = @ExampleObject(value = """
+            ["Smartphone", "Smartwatch"]
+            """)
+                                )
+                        )
+    })
+    public ResponseEntity<List<String>> suggestProductNames(
+            @Parameter(description = "Début du nom", example = "Sma")
+            @RequestParam @Size(min = 1, max = 30) String prefix,
+            @Parameter(description = "Nombre maximum de suggestions", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        return ResponseEntity.ok(productNameIndex.suggest(prefix, limit));
+    }
+
+    // =================== STATS ======================= /
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Statistiques d’inventaire",
+            description = """
+            Valeur totale du stock (somme de `price * stockQuantity`), nombre de produits, prix minimum,
+            maximum et moyen, et nombre de produits par tranche de stock :
+            `OUT_OF_STOCK` (0), `LOW` (1 à 4), `NORMAL` (5 à 49), `HIGH` (50 et plus).
+            
+            ⚡ Les agrégats sont calculés par la base (une ligne par tranche de stock) et gardés jusqu’à la
+            prochaine écriture : une lecture sans écriture intermédiaire ne touche pas la base.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Statistiques courantes",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = InventoryStatsDTO.class),
+                                        examples = @ExampleObject(value = """
+            {
+              "productCount": 3,
+              "totalValue": 15499.67,
+              "minPrice": 299.99,
+              "maxPrice": 999.99,
+              "averagePrice": 599.99,
+              "stockBuckets": { "OUT_OF_STOCK": 0, "LOW": 1, "NORMAL": 2, "HIGH": 0 },
+              "reconciledAt": "2025-04-14T08:00:00Z"
+            }
+            """)
+                                )
                         )
     })
-    public ResponseEntity<List<ProductDTO>> getLowStockProducts() {
-        List<ProductDTO> lowStockProducts = productService.getLowStockProducts();
-        return ResponseEntity.ok(lowStockProducts);
+    public ResponseEntity<InventoryStatsDTO> getInventoryStats() {
+        return ResponseEntity.ok(inventoryStats.snapshot());
+    }
+
+    // =================== CHANGES (SSE) ======================= /
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Flux des changements du catalogue (Server-Sent Events)",
+            description = """
+            Flux `text/event-stream` des écritures, toutes instances confondues (PostgreSQL `LISTEN/NOTIFY`),
+            à utiliser à la place d’un polling de la liste.
+            
+            - Événements `created`, `updated`, `stock` et `deleted` : `data` contient le produit.
+            - Événement `imported` : un import CSV a eu lieu, `data` contient les compteurs ; recharger la liste.
+            - Événement `connected` : premier événement d’une connexion sans `Last-Event-ID`.
+            - Événement `reset` : l’historique demandé n’est plus disponible (redémarrage, reconnexion à la base
+              ou client trop en retard) ; recharger la liste puis continuer à écouter.
+            
+            🔁 En renvoyant l’en-tête `Last-Event-ID` (automatique avec `EventSource`), le client reçoit les
+            événements manqués depuis ce point, dans la limite des derniers événements gardés en mémoire.
+            Un client trop lent est déconnecté et reprend de la même façon. Un commentaire `ping` est envoyé
+            toutes les 15 secondes.
+            """
+                )
+                @ApiResponses(value = {
+                        @ApiResponse(
+                                responseCode = "200",
+                                description = "Flux SSE des changements",
+                                content = @Content(
+                                        mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                        examples = @ExampleObject(value = """
+            id:lx3k2f.1:42
+            event:stock
+            data:{"type":"STOCK","product":{"id":1,"name":"Smartphone","price":499.99,"stockQuantity":3,"version":7}}
+            
+            id:lx3k2f.1:43
+            event:imported
+            data:{"type":"IMPORTED","inserted":120,"updated":30}
+            """)
+                                )
+                        ),
+                        @ApiResponse(
+                                responseCode = "503",
+                                description = "Trop d’abonnés simultanés",
+                                content = @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = MyErrorResponses.class)
+                                )
+                        )
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Id du dernier événement reçu, pour reprendre le flux")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return productChangeFeed.subscribe(lastEventId);
+    }
+
+
+    // Représentation que la négociation de contenu va retenir, pour un ETag propre à chaque format
+    private static String representation(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return JSON.getSubtype();
+        }
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(accepted);
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType mediaType : accepted) {
+                for (MediaType representation : REPRESENTATIONS) {
+                    if (mediaType.isCompatibleWith(representation)) {
+                        return representation.getSubtype();
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // En-tête invalide : la négociation répondra elle-même par une erreur
+        }
+        return JSON.getSubtype();
     }
 
 
@@ -369,6 +1027,29 @@ public class ProductController {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<MyErrorResponses> handleInsufficientStockException(InsufficientStockException ex) {
+        MyErrorResponses errorResponse = new MyErrorResponses("CONFLICT", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MyErrorResponses> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        MyErrorResponses errorResponse = new MyErrorResponses("CONFLICT",
+                "The product was modified concurrently. Reload it and retry with the current version.");
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<MyErrorResponses> handleServiceBusyException(ServiceBusyException ex) {
+        MyErrorResponses errorResponse = new MyErrorResponses("SERVICE_UNAVAILABLE", ex.getMessage());
+        // Type fixé : la requête peut n'accepter que text/event-stream (GET /changes)
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(APIException.class)
     public ResponseEntity<MyErrorResponses> myAPIException(APIException ex) {
         MyErrorResponses errorResponse = new MyErrorResponses("BAD_REQUEST", ex.getMessage());
@@ -0,0 +1,122 @@
+package com.belvinard.products_api.dto;
+
+import com.belvinard.products_api.entity.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+public class InventoryStatsDTO {
+
+    // Tranches de stock : rupture, faible stock (< Product.LOW_STOCK_THRESHOLD), normal, élevé
+    public enum StockBucket {
+        OUT_OF_STOCK,
+        LOW,
+        NORMAL,
+        HIGH;
+
+        public static final int HIGH_STOCK_THRESHOLD = 50;
+
+        public static StockBucket of(int stockQuantity) {
+            if (stockQuantity <= 0) {
+                return OUT_OF_STOCK;
+            }
+            if (stockQuantity < Product.LOW_STOCK_THRESHOLD) {
+                return LOW;
+            }
+            return stockQuantity < HIGH_STOCK_THRESHOLD ? NORMAL : HIGH;
+        }
+    }
+
+    @Schema(description = "Nombre de produits", example = "3")
+    private long productCount;
+
+    @Schema(description = "Valeur totale du stock (somme de price * stockQuantity)", example = "15499.67")
+    private BigDecimal totalValue;
+
+    @Schema(description = "Prix minimum", example = "299.99")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Prix maximum", example = "999.99")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Prix moyen", example = "599.99")
+    private BigDecimal averagePrice;
+
+    @Schema(description = "Nombre de produits par tranche de stock")
+    private Map<StockBucket, Long> stockBuckets;
+
+    @Schema(description = "Date de la dernière réconciliation complète avec la base")
+    private Instant reconciledAt;
+
+    public InventoryStatsDTO() {
+    }
+
+    public InventoryStatsDTO(long productCount, BigDecimal totalValue, BigDecimal minPrice, BigDecimal maxPrice,
+                             BigDecimal averagePrice, Map<StockBucket, Long> stockBuckets, Instant reconciledAt) {
+        this.productCount = productCount;
+        this.totalValue = totalValue;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.averagePrice = averagePrice;
+        this.stockBuckets = stockBuckets;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(BigDecimal averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public Map<StockBucket, Long> getStockBuckets() {
+        return stockBuckets;
+    }
+
+    public void setStockBuckets(Map<StockBucket, Long> stockBuckets) {
+        this.stockBuckets = stockBuckets;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.belvinard.products_api.dto;
+
+import java.util.Map;
+
+public class ProductBatchItemResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE_NAME,
+        VALIDATION_ERROR
+    }
+
+    private int index;
+    private Status status;
+    private ProductDTO product;
+    private String alert;
+    private Map<String, String> errors;
+
+    public ProductBatchItemResult() {
+    }
+
+    public ProductBatchItemResult(int index, Status status, ProductDTO product, String alert, Map<String, String> errors) {
+        this.index = index;
+        this.status = status;
+        this.product = product;
+        this.alert = alert;
+        this.errors = errors;
+    }
+
+    public static ProductBatchItemResult created(int index, ProductDTO product, String alert) {
+        return new ProductBatchItemResult(index, Status.CREATED, product, alert, null);
+    }
+
+    public static ProductBatchItemResult duplicateName(int index, ProductDTO product) {
+        return new ProductBatchItemResult(index, Status.DUPLICATE_NAME, product, null,
+                Map.of("name", "A product with the name '" + product.getName() + "' already exists."));
+    }
+
+    public static ProductBatchItemResult validationError(int index, ProductDTO product, Map<String, String> errors) {
+        return new ProductBatchItemResult(index, Status.VALIDATION_ERROR, product, null, errors);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductDTO product) {
+        this.product = product;
+    }
+
+    public String getAlert() {
+        return alert;
+    }
+
+    public void setAlert(String alert) {
+        this.alert = alert;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,29 @@
+package com.belvinard.products_api.dto;
+
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Une écriture telle que diffusée sur GET /api/products/changes. Pour un import CSV, un seul
+ * changement IMPORTED avec les compteurs : les clients rechargent la liste.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductChange(Type type, ProductDTO product, Long inserted, Long updated) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STOCK,
+        DELETED,
+        IMPORTED
+    }
+
+    public static ProductChange of(ProductChangedEvent event) {
+        return new ProductChange(Type.valueOf(event.type().name()), event.product(), null, null);
+    }
+
+    public static ProductChange of(ProductsImportedEvent event) {
+        return new ProductChange(Type.IMPORTED, null, event.inserted(), event.updated());
+    }
+}
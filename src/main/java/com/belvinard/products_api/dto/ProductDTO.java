@@ -25,6 +25,10 @@ public class ProductDTO {
     @Schema(description = "Quantité en stock", example = "10")
     private Integer stockQuantity;
 
+    @Schema(description = "Version du produit. Si elle est fournie lors d'une mise à jour, " +
+            "la mise à jour échoue (409) quand le produit a été modifié entre-temps", example = "3")
+    private Long version;
+
     public ProductDTO() {
     }
 
@@ -35,6 +39,11 @@ public class ProductDTO {
         this.stockQuantity = stockQuantity;
     }
 
+    public ProductDTO(Long id, String name, BigDecimal price, Integer stockQuantity, Long version) {
+        this(id, name, price, stockQuantity);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -66,4 +75,12 @@ public class ProductDTO {
     public void setStockQuantity(Integer stockQuantity) {
         this.stockQuantity = stockQuantity;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,11 @@
+package com.belvinard.products_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Produit partiel renvoyé avec ?fields= : les champs non sélectionnés restent null et ne sont
+ * pas écrits. Les autres réponses gardent la forme complète de ProductDTO, nulls compris.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductFieldsDTO extends ProductDTO {
+}
@@ -0,0 +1,68 @@
+package com.belvinard.products_api.dto;
+
+import com.belvinard.products_api.repository.ProductSort;
+
+import java.math.BigDecimal;
+
+public class ProductSearchCriteria {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minStock;
+    private Integer maxStock;
+    private ProductSort sort = ProductSort.ID;
+
+    public ProductSearchCriteria() {
+    }
+
+    public ProductSearchCriteria(BigDecimal minPrice, BigDecimal maxPrice, Integer minStock, Integer maxStock, ProductSort sort) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minStock = minStock;
+        this.maxStock = maxStock;
+        this.sort = sort == null ? ProductSort.ID : sort;
+    }
+
+    public boolean hasFilters() {
+        return minPrice != null || maxPrice != null || minStock != null || maxStock != null;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getMinStock() {
+        return minStock;
+    }
+
+    public void setMinStock(Integer minStock) {
+        this.minStock = minStock;
+    }
+
+    public Integer getMaxStock() {
+        return maxStock;
+    }
+
+    public void setMaxStock(Integer maxStock) {
+        this.maxStock = maxStock;
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public void setSort(ProductSort sort) {
+        this.sort = sort;
+    }
+}
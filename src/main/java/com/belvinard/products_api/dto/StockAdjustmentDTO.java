@@ -0,0 +1,28 @@
+package com.belvinard.products_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class StockAdjustmentDTO {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Schema(description = "Nombre d'unités à réserver ou à libérer", example = "2")
+    private Integer quantity;
+
+    public StockAdjustmentDTO() {
+    }
+
+    public StockAdjustmentDTO(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
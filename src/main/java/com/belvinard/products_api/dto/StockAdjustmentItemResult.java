@@ -0,0 +1,100 @@
+package com.belvinard.products_api.dto;
+
+public class StockAdjustmentItemResult {
+
+    public enum Status {
+        APPLIED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK,
+        STOCK_OUT_OF_RANGE
+    }
+
+    private Long productId;
+    private int delta;
+    private Status status;
+    private Integer previousStockQuantity;
+    private Integer stockQuantity;
+    private String error;
+
+    public StockAdjustmentItemResult() {
+    }
+
+    public StockAdjustmentItemResult(Long productId, int delta, Status status, Integer previousStockQuantity,
+                                     Integer stockQuantity, String error) {
+        this.productId = productId;
+        this.delta = delta;
+        this.status = status;
+        this.previousStockQuantity = previousStockQuantity;
+        this.stockQuantity = stockQuantity;
+        this.error = error;
+    }
+
+    public static StockAdjustmentItemResult applied(Long productId, int delta, int previousStockQuantity, int stockQuantity) {
+        return new StockAdjustmentItemResult(productId, delta, Status.APPLIED, previousStockQuantity, stockQuantity, null);
+    }
+
+    public static StockAdjustmentItemResult notFound(Long productId, int delta) {
+        return new StockAdjustmentItemResult(productId, delta, Status.NOT_FOUND, null, null,
+                "Product not found with productId : " + productId);
+    }
+
+    // Le stock n'est pas modifié : stockQuantity est la quantité actuelle
+    public static StockAdjustmentItemResult insufficientStock(Long productId, int delta, int stockQuantity) {
+        return new StockAdjustmentItemResult(productId, delta, Status.INSUFFICIENT_STOCK, stockQuantity, stockQuantity,
+                "Stock would become negative: " + stockQuantity + " in stock, delta " + delta);
+    }
+
+    // Le stock dépasserait Integer.MAX_VALUE : il n'est pas modifié, stockQuantity est la quantité actuelle
+    public static StockAdjustmentItemResult stockOutOfRange(Long productId, int delta, int stockQuantity) {
+        return new StockAdjustmentItemResult(productId, delta, Status.STOCK_OUT_OF_RANGE, stockQuantity, stockQuantity,
+                "Stock would exceed " + Integer.MAX_VALUE + ": " + stockQuantity + " in stock, delta " + delta);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getPreviousStockQuantity() {
+        return previousStockQuantity;
+    }
+
+    public void setPreviousStockQuantity(Integer previousStockQuantity) {
+        this.previousStockQuantity = previousStockQuantity;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
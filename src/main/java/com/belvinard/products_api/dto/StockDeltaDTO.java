@@ -0,0 +1,39 @@
+package com.belvinard.products_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+public class StockDeltaDTO {
+
+    @NotNull(message = "Product id is required")
+    @Schema(description = "ID du produit", example = "1")
+    private Long productId;
+
+    @NotNull(message = "Delta is required")
+    @Schema(description = "Variation du stock (négative pour une sortie)", example = "-3")
+    private Integer delta;
+
+    public StockDeltaDTO() {
+    }
+
+    public StockDeltaDTO(Long productId, Integer delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
@@ -15,8 +15,13 @@ import java.math.BigDecimal;
 //@NoArgsConstructor
 @Table(name = "products", uniqueConstraints = @UniqueConstraint(columnNames = "name"))
 public class Product {
+    // En dessous de ce seuil, un produit est considéré en faible stock (voir l'index partiel dans schema.sql)
+    public static final int LOW_STOCK_THRESHOLD = 5;
+
+    // Séquence "pooled" : un appel à la séquence réserve 50 ids, ce qui permet le batching JDBC des INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_product_id_seq", allocationSize = 50)
     private Long productId;
 
     @NotBlank(message = "Product name cannot be blank")
@@ -34,6 +39,10 @@ public class Product {
     @Column(nullable = false)
     private Integer stockQuantity;
 
+    // Verrouillage optimiste : incrémenté à chaque écriture, y compris par les UPDATE natifs du repository
+    @Version
+    private Long version;
+
     public Product() {
     }
 
@@ -75,4 +84,12 @@ public class Product {
     public void setStockQuantity(Integer stockQuantity) {
         this.stockQuantity = stockQuantity;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,70 @@
+package com.belvinard.products_api.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Ligne de l'outbox des alertes de stock : écrite dans la même transaction que la modification
+ * du produit, puis consommée et supprimée par StockAlertDispatcher.
+ * attempts et nextAttemptAt suivent les livraisons échouées (nouvel essai avec délai croissant).
+ */
+@Entity
+@Table(name = "stock_alert_outbox")
+public class StockAlertEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 100)
+    private String productName;
+
+    @Column(nullable = false)
+    private Integer stockQuantity;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @ColumnDefault("now()")
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    public StockAlertEvent() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.belvinard.products_api.event;
+
+import com.belvinard.products_api.dto.ProductDTO;
+
+/**
+ * Publié par ProductServiceImpl après chaque écriture. Les structures en mémoire
+ * (index, caches...) l'écoutent après le commit pour rester alignées sur la base.
+ */
+public record ProductChangedEvent(Type type, ProductDTO product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        // Seul le stock a changé (réservation, libération, ajustement en masse)
+        STOCK,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(ProductDTO product) {
+        return new ProductChangedEvent(Type.CREATED, product);
+    }
+
+    public static ProductChangedEvent updated(ProductDTO product) {
+        return new ProductChangedEvent(Type.UPDATED, product);
+    }
+
+    public static ProductChangedEvent stockChanged(ProductDTO product) {
+        return new ProductChangedEvent(Type.STOCK, product);
+    }
+
+    public static ProductChangedEvent deleted(ProductDTO product) {
+        return new ProductChangedEvent(Type.DELETED, product);
+    }
+}
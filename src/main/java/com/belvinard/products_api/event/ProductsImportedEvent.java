@@ -0,0 +1,8 @@
+package com.belvinard.products_api.event;
+
+/**
+ * Publié après le commit d'un import CSV. Trop de lignes pour un ProductChangedEvent par produit :
+ * les structures en mémoire se reconstruisent à partir de la base.
+ */
+public record ProductsImportedEvent(long inserted, long updated) {
+}
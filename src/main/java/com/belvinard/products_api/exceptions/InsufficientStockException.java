@@ -0,0 +1,7 @@
+package com.belvinard.products_api.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
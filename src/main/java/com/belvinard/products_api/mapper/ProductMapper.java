@@ -0,0 +1,42 @@
+package com.belvinard.products_api.mapper;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversion explicite Product <-> ProductDTO, sans réflexion.
+ * Remplace le ModelMapper qui ne savait pas relier productId à id.
+ */
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDto(Product product) {
+        return new ProductDTO(
+                product.getProductId(),
+                product.getName(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getVersion());
+    }
+
+    public List<ProductDTO> toDtoList(List<Product> products) {
+        List<ProductDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(toDto(product));
+        }
+        return dtos;
+    }
+
+    // L'id et la version ne sont jamais recopiés : ils sont attribués à la création
+    public Product toEntity(ProductDTO productDTO) {
+        return new Product(
+                null,
+                productDTO.getName(),
+                productDTO.getPrice(),
+                productDTO.getStockQuantity());
+    }
+}
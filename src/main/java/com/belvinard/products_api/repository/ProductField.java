@@ -0,0 +1,82 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.exceptions.APIException;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Champs d'un produit sélectionnables avec ?fields= : nom JSON côté API, attribut de l'entité
+ * côté requête. Seules les colonnes des champs demandés sont lues en base.
+ */
+public enum ProductField {
+    ID("id", "productId"),
+    NAME("name", "name"),
+    PRICE("price", "price"),
+    STOCK_QUANTITY("stockQuantity", "stockQuantity"),
+    VERSION("version", "version");
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    private final String jsonName;
+    private final String attribute;
+
+    ProductField(String jsonName, String attribute) {
+        this.jsonName = jsonName;
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    // "id,stockQuantity" -> {ID, STOCK_QUANTITY} ; absent ou vide : tous les champs
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<ProductField> parsed = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(fromJsonName(trimmed));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new APIException("The fields parameter must name at least one field.");
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    private static ProductField fromJsonName(String jsonName) {
+        for (ProductField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        throw new APIException("Unknown field '" + jsonName + "'. Allowed fields: id, name, price, stockQuantity, version.");
+    }
+
+    // Copie dans le DTO la valeur lue pour ce champ
+    public void set(ProductDTO product, Object value) {
+        switch (this) {
+            case ID -> product.setId((Long) value);
+            case NAME -> product.setName((String) value);
+            case PRICE -> product.setPrice((BigDecimal) value);
+            case STOCK_QUANTITY -> product.setStockQuantity((Integer) value);
+            case VERSION -> product.setVersion((Long) value);
+        }
+    }
+
+    // Efface les champs lus pour le curseur ou le filtrage mais non demandés par le client
+    public static void retainOnly(ProductDTO product, Set<ProductField> fields) {
+        for (ProductField field : values()) {
+            if (!fields.contains(field)) {
+                field.set(product, null);
+            }
+        }
+    }
+}
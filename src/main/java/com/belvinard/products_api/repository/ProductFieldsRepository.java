@@ -0,0 +1,21 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lecture partielle des produits : seules les colonnes des champs demandés sont sélectionnées
+ * (requête en tuples), les autres champs du DTO restent null. Les DTO sont des ProductFieldsDTO,
+ * qui n'écrivent pas ces null en JSON. Aucune entité n'est chargée : rien dans le contexte de
+ * persistance, rien à vérifier au flush.
+ */
+public interface ProductFieldsRepository {
+
+    List<ProductDTO> findFields(Set<ProductField> fields, Specification<Product> specification, Sort sort, Limit limit);
+}
@@ -0,0 +1,67 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductFieldsDTO;
+import com.belvinard.products_api.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Fragment de ProductRepository, détecté par Spring Data grâce au suffixe Impl
+public class ProductFieldsRepositoryImpl implements ProductFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductDTO> findFields(Set<ProductField> fields, Specification<Product> specification, Sort sort, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<ProductField> columns = List.copyOf(fields);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (ProductField field : columns) {
+            selections.add(root.get(field.attribute()));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<ProductDTO> products = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            ProductDTO product = new ProductFieldsDTO();
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).set(product, tuple.get(i));
+            }
+            products.add(product);
+        }
+        return products;
+    }
+}
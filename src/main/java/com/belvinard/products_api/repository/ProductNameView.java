@@ -0,0 +1,8 @@
+package com.belvinard.products_api.repository;
+
+// Projection légère (id + nom) utilisée pour construire l'index d'autocomplétion
+public interface ProductNameView {
+    Long getProductId();
+
+    String getName();
+}
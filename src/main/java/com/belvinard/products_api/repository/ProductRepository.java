@@ -1,18 +1,142 @@
 package com.belvinard.products_api.repository;
 
 import com.belvinard.products_api.entity.Product;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFieldsRepository {
     Product findByName(String name);
     Optional<Product> findByProductId(Long productId);
+
+    @Query("select p.productId as productId, p.name as name from Product p")
+    List<ProductNameView> findAllNames();
+
+    // Une ligne par tranche de stock non vide (mêmes bornes que InventoryStatsDTO.StockBucket.of) :
+    // seuls ces agrégats sortent de la base, jamais les lignes du catalogue
+    @Query(value = """
+            SELECT s.bucket AS "bucket", COUNT(*) AS "productCount",
+                   SUM(s.price * s.stock_quantity) AS "totalValue", SUM(s.price) AS "priceSum",
+                   MIN(s.price) AS "minPrice", MAX(s.price) AS "maxPrice"
+            FROM (SELECT price, stock_quantity,
+                         CASE WHEN stock_quantity <= 0 THEN 'OUT_OF_STOCK'
+                              WHEN stock_quantity < :lowStockThreshold THEN 'LOW'
+                              WHEN stock_quantity < :highStockThreshold THEN 'NORMAL'
+                              ELSE 'HIGH' END AS bucket
+                  FROM products) s
+            GROUP BY s.bucket
+            """, nativeQuery = true)
+    List<StockBucketStatsView> aggregateStockBuckets(@Param("lowStockThreshold") int lowStockThreshold,
+                                                     @Param("highStockThreshold") int highStockThreshold);
+
+    // Recherche par sous-chaîne (ILIKE), servie par l'index trigramme idx_products_name_trgm
+    @Query(value = """
+            SELECT * FROM products
+            WHERE name ILIKE '%' || :pattern || '%' ESCAPE '\\'
+            ORDER BY name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> searchByName(@Param("pattern") String escapedPattern, @Param("limit") int limit);
+
+    @Query("select p.name from Product p where p.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
     List<Product> findByStockQuantityLessThan(int quantity);
 
+    // Seuil en littéral pour que PostgreSQL puisse utiliser l'index partiel idx_products_low_stock
+    @Query("select p.productId from Product p where p.stockQuantity < " + Product.LOW_STOCK_THRESHOLD)
+    List<Long> findLowStockProductIds();
+
+    // Keyset pagination : lit la page suivante à partir du dernier productId vu
+    List<Product> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Limit limit);
+
+    // Export : curseur JDBC côté serveur, doit être consommé dans une transaction puis fermé
+    @Query("select p from Product p order by p.productId")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Product> streamAllOrderByProductId();
+
+    // Mise à jour en un seul aller-retour : vide si le produit n'existe pas (ou si la version attendue
+    // ne correspond plus), DataIntegrityViolationException si le nouveau nom est déjà pris (contrainte unique sur name)
+    @Transactional
+    @Query(value = """
+            UPDATE products
+            SET name = :name, price = :price, stock_quantity = :stockQuantity, version = version + 1
+            WHERE product_id = :productId
+              AND (CAST(:expectedVersion AS bigint) IS NULL OR version = :expectedVersion)
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Product> updateReturning(@Param("productId") Long productId,
+                                      @Param("name") String name,
+                                      @Param("price") BigDecimal price,
+                                      @Param("stockQuantity") Integer stockQuantity,
+                                      @Param("expectedVersion") Long expectedVersion);
+
+    // Réservation atomique : vide si le produit n'existe pas ou si le stock est insuffisant
+    @Transactional
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - :quantity, version = version + 1
+            WHERE product_id = :productId AND stock_quantity >= :quantity
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Product> reserveStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Libération atomique : vide si le produit n'existe pas ou si le stock dépasserait Integer.MAX_VALUE
+    // (somme vérifiée en bigint, comme pour adjustStock)
+    @Transactional
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity + :quantity, version = version + 1
+            WHERE product_id = :productId
+              AND CAST(stock_quantity AS bigint) + :quantity BETWEEN 0 AND 2147483647
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Product> releaseStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Verrouille les lignes d'un ajustement en masse par id croissant et renvoie leur stock : deux lots
+    // concurrents qui partagent des produits attendent l'un après l'autre au lieu de s'interbloquer
+    // (l'UPDATE ... FROM unnest verrouille dans l'ordre du plan d'exécution, pas dans celui des ids)
+    @Query(value = """
+            SELECT product_id AS "productId", stock_quantity AS "stockQuantity"
+            FROM products
+            WHERE product_id = ANY(CAST(:productIds AS bigint[]))
+            ORDER BY product_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<ProductStockView> lockStock(@Param("productIds") Long[] productIds);
 
-}
\ No newline at end of file
+    // Ajustement en masse : une seule requête pour tous les produits (un id au plus une fois).
+    // Les lignes qui passeraient en négatif ou au-delà de Integer.MAX_VALUE ne sont pas modifiées et n'apparaissent
+    // pas dans le résultat. La somme est vérifiée en bigint : en integer, un dépassement ferait échouer tout le lot.
+    @Transactional
+    @Query(value = """
+            UPDATE products p
+            SET stock_quantity = p.stock_quantity + d.delta, version = p.version + 1
+            FROM unnest(CAST(:productIds AS bigint[]), CAST(:deltas AS integer[])) AS d(product_id, delta)
+            WHERE p.product_id = d.product_id
+              AND CAST(p.stock_quantity AS bigint) + d.delta BETWEEN 0 AND 2147483647
+            RETURNING p.product_id AS "productId", p.name AS "name", p.price AS "price",
+                      p.stock_quantity - d.delta AS "previousStockQuantity",
+                      p.stock_quantity AS "stockQuantity", p.version AS "version"
+            """, nativeQuery = true)
+    List<StockAdjustmentView> adjustStock(@Param("productIds") Long[] productIds, @Param("deltas") Integer[] deltas);
+}
@@ -0,0 +1,58 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import org.springframework.data.domain.Sort;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Ordres de tri supportés par la liste des produits. Chacun se termine par une clé unique
+ * (productId ou name) pour que la pagination par curseur soit stable, et correspond à un index :
+ * clé primaire, idx_products_price_id, contrainte unique sur name, idx_products_stock_id.
+ * Un filtre sur une autre colonne que la clé de tri n'est pas couvert par cet index (voir le README).
+ */
+public enum ProductSort {
+    ID(Sort.by("productId"), ProductField.ID),
+    PRICE_ASC(Sort.by("price", "productId"), ProductField.PRICE),
+    PRICE_DESC(Sort.by(Sort.Direction.DESC, "price", "productId"), ProductField.PRICE),
+    NAME(Sort.by("name"), ProductField.NAME),
+    STOCK(Sort.by("stockQuantity", "productId"), ProductField.STOCK_QUANTITY);
+
+    private final Sort sort;
+    private final Set<ProductField> cursorFields;
+
+    ProductSort(Sort sort, ProductField key) {
+        this.sort = sort;
+        this.cursorFields = EnumSet.of(key, ProductField.ID);
+    }
+
+    public Sort sort() {
+        return sort;
+    }
+
+    // Champs à lire, même s'ils ne sont pas demandés, pour construire le curseur de la page suivante
+    public Set<ProductField> cursorFields() {
+        return cursorFields;
+    }
+
+    // Valeur de la clé de tri du dernier produit d'une page, conservée dans le curseur
+    public String sortValue(Product product) {
+        return switch (this) {
+            case ID -> String.valueOf(product.getProductId());
+            case PRICE_ASC, PRICE_DESC -> product.getPrice().toPlainString();
+            case NAME -> product.getName();
+            case STOCK -> String.valueOf(product.getStockQuantity());
+        };
+    }
+
+    public String sortValue(ProductDTO product) {
+        return switch (this) {
+            case ID -> String.valueOf(product.getId());
+            case PRICE_ASC, PRICE_DESC -> product.getPrice().toPlainString();
+            case NAME -> product.getName();
+            case STOCK -> String.valueOf(product.getStockQuantity());
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.exceptions.APIException;
+import com.belvinard.products_api.util.CursorCodec;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Critères dynamiques de la liste des produits : filtres de prix et de stock,
+ * puis reprise après la dernière ligne de la page précédente (keyset).
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinStock() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("stockQuantity"), criteria.getMinStock()));
+            }
+            if (criteria.getMaxStock() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("stockQuantity"), criteria.getMaxStock()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Product> idIn(Collection<Long> productIds) {
+        return (root, query, cb) -> root.get("productId").in(productIds);
+    }
+
+    /**
+     * Lignes situées après la position du curseur dans l'ordre de tri. La forme
+     * "cle >= v AND (cle > v OR id > dernierId)" borne le parcours de l'index composite
+     * (cle, product_id) dès la valeur v au lieu de repartir du début.
+     */
+    public static Specification<Product> after(ProductSort sort, CursorCodec.Position position) {
+        if (position == null) {
+            return (root, query, cb) -> null;
+        }
+        try {
+            return switch (sort) {
+                case ID -> (root, query, cb) -> cb.greaterThan(root.get("productId"), position.productId());
+                case NAME -> (root, query, cb) -> cb.greaterThan(root.get("name"), position.sortValue());
+                case PRICE_ASC -> ascendingAfter("price", new BigDecimal(position.sortValue()), position.productId());
+                case PRICE_DESC -> descendingAfter("price", new BigDecimal(position.sortValue()), position.productId());
+                case STOCK -> ascendingAfter("stockQuantity", Integer.valueOf(position.sortValue()), position.productId());
+            };
+        } catch (NumberFormatException ex) {
+            throw new APIException("Invalid cursor value: " + position.sortValue());
+        }
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Product> ascendingAfter(String attribute, T value, Long productId) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(attribute);
+            return cb.and(
+                    cb.greaterThanOrEqualTo(key, value),
+                    cb.or(cb.greaterThan(key, value), cb.greaterThan(root.get("productId"), productId)));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Product> descendingAfter(String attribute, T value, Long productId) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(attribute);
+            return cb.and(
+                    cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(root.get("productId"), productId)));
+        };
+    }
+}
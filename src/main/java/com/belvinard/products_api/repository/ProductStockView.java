@@ -0,0 +1,8 @@
+package com.belvinard.products_api.repository;
+
+// Stock d'un produit verrouillé avant un ajustement en masse, renvoyé pour expliquer les refus
+public interface ProductStockView {
+    Long getProductId();
+
+    Integer getStockQuantity();
+}
@@ -0,0 +1,18 @@
+package com.belvinard.products_api.repository;
+
+import java.math.BigDecimal;
+
+// Ligne renvoyée par l'ajustement de stock en masse : l'état après l'UPDATE et le stock d'avant
+public interface StockAdjustmentView {
+    Long getProductId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getPreviousStockQuantity();
+
+    Integer getStockQuantity();
+
+    Long getVersion();
+}
@@ -0,0 +1,96 @@
+package com.belvinard.products_api.repository;
+
+import com.belvinard.products_api.entity.StockAlertEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface StockAlertOutboxRepository extends JpaRepository<StockAlertEvent, Long> {
+
+    // Arme l'alerte du produit et n'écrit dans l'outbox que si elle ne l'était pas déjà :
+    // un produit qui reste en faible stock ne déclenche pas une nouvelle alerte à chaque mise à jour
+    @Modifying
+    @Query(value = """
+            WITH armed AS (
+                INSERT INTO low_stock_alert_state (product_id, alerted_at)
+                VALUES (:productId, now())
+                ON CONFLICT (product_id) DO NOTHING
+                RETURNING product_id
+            )
+            INSERT INTO stock_alert_outbox (product_id, product_name, stock_quantity, created_at)
+            SELECT product_id, :productName, :stockQuantity, now() FROM armed
+            """, nativeQuery = true)
+    int recordLowStock(@Param("productId") Long productId,
+                       @Param("productName") String productName,
+                       @Param("stockQuantity") Integer stockQuantity);
+
+    // Le produit est repassé au-dessus du seuil (ou a été supprimé) : la prochaine baisse alertera à nouveau
+    @Modifying
+    @Query(value = "DELETE FROM low_stock_alert_state WHERE product_id = :productId", nativeQuery = true)
+    int rearm(@Param("productId") Long productId);
+
+    // Variante ensembliste de recordLowStock pour un import CSV : porte sur les produits de la table
+    // temporaire import_staging (voir ProductCsvImporter), visible seulement dans la transaction de l'import
+    @Modifying
+    @Query(value = """
+            WITH armed AS (
+                INSERT INTO low_stock_alert_state (product_id, alerted_at)
+                SELECT DISTINCT p.product_id, now()
+                FROM products p JOIN import_staging s ON s.name = p.name
+                WHERE p.stock_quantity < :threshold
+                ON CONFLICT (product_id) DO NOTHING
+                RETURNING product_id
+            )
+            INSERT INTO stock_alert_outbox (product_id, product_name, stock_quantity, created_at)
+            SELECT p.product_id, p.name, p.stock_quantity, now()
+            FROM armed a JOIN products p ON p.product_id = a.product_id
+            """, nativeQuery = true)
+    int recordImportedLowStock(@Param("threshold") int threshold);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM low_stock_alert_state a
+            USING products p, import_staging s
+            WHERE s.name = p.name AND a.product_id = p.product_id AND p.stock_quantity >= :threshold
+            """, nativeQuery = true)
+    int rearmImported(@Param("threshold") int threshold);
+
+    // Réserve le prochain lot dû dans une transaction courte, commitée avant la livraison : les verrous
+    // SKIP LOCKED ne durent que le temps de l'UPDATE. next_attempt_at passe à now() + lease, ce qui écarte
+    // le lot des autres instances pendant la livraison ; si l'instance s'arrête, il redevient dû à la fin du bail.
+    @Transactional
+    @Query(value = """
+            UPDATE stock_alert_outbox o
+            SET attempts = o.attempts + 1,
+                next_attempt_at = now() + make_interval(secs => :leaseSeconds)
+            FROM (SELECT id FROM stock_alert_outbox
+                  WHERE next_attempt_at <= now() AND attempts < :maxAttempts
+                  ORDER BY id
+                  LIMIT :batchSize
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE o.id = due.id
+            RETURNING o.*
+            """, nativeQuery = true)
+    List<StockAlertEvent> claimNextBatch(@Param("batchSize") int batchSize,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         @Param("leaseSeconds") long leaseSeconds);
+
+    // Échec de livraison : nouvel essai après un délai qui double à chaque tentative, plafonné
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE stock_alert_outbox
+            SET next_attempt_at = now() + make_interval(secs =>
+                    least(:maxBackoffSeconds, :backoffSeconds * power(2, attempts - 1)))
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int scheduleRetry(@Param("ids") List<Long> ids,
+                      @Param("backoffSeconds") long backoffSeconds,
+                      @Param("maxBackoffSeconds") long maxBackoffSeconds);
+}
@@ -0,0 +1,18 @@
+package com.belvinard.products_api.repository;
+
+import java.math.BigDecimal;
+
+// Agrégats d'une tranche de stock, calculés par la base pour les statistiques d'inventaire
+public interface StockBucketStatsView {
+    String getBucket();
+
+    Long getProductCount();
+
+    BigDecimal getTotalValue();
+
+    BigDecimal getPriceSum();
+
+    BigDecimal getMinPrice();
+
+    BigDecimal getMaxPrice();
+}
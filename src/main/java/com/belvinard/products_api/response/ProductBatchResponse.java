@@ -0,0 +1,46 @@
+package com.belvinard.products_api.response;
+
+import com.belvinard.products_api.dto.ProductBatchItemResult;
+
+import java.util.List;
+
+public class ProductBatchResponse {
+    private int created;
+    private int failed;
+    private List<ProductBatchItemResult> results;
+
+    public ProductBatchResponse() {
+    }
+
+    public ProductBatchResponse(List<ProductBatchItemResult> results) {
+        this.results = results;
+        this.created = (int) results.stream()
+                .filter(r -> r.getStatus() == ProductBatchItemResult.Status.CREATED)
+                .count();
+        this.failed = results.size() - created;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ProductBatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ProductBatchItemResult> results) {
+        this.results = results;
+    }
+}
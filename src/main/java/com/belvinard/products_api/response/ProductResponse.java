@@ -7,6 +7,7 @@ import java.util.List;
 public class ProductResponse {
     List<ProductDTO> content;
     private List<String> alerts;
+    private String nextCursor;
 
     public ProductResponse() {
     }
@@ -16,6 +17,12 @@ public class ProductResponse {
         this.alerts = alerts;
     }
 
+    public ProductResponse(List<ProductDTO> content, List<String> alerts, String nextCursor) {
+        this.content = content;
+        this.alerts = alerts;
+        this.nextCursor = nextCursor;
+    }
+
     public List<ProductDTO> getContent() {
         return content;
     }
@@ -31,4 +38,12 @@ public class ProductResponse {
     public void setAlerts(List<String> alerts) {
         this.alerts = alerts;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
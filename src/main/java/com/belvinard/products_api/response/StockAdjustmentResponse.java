@@ -0,0 +1,67 @@
+package com.belvinard.products_api.response;
+
+import com.belvinard.products_api.dto.StockAdjustmentItemResult;
+
+import java.util.List;
+
+public class StockAdjustmentResponse {
+    private int applied;
+    private int failed;
+    private List<StockAdjustmentItemResult> results;
+    // Produits passés sous le seuil de faible stock / repassés au-dessus avec cet ajustement
+    private List<Long> enteredLowStock;
+    private List<Long> leftLowStock;
+
+    public StockAdjustmentResponse() {
+    }
+
+    public StockAdjustmentResponse(List<StockAdjustmentItemResult> results, List<Long> enteredLowStock, List<Long> leftLowStock) {
+        this.results = results;
+        this.applied = (int) results.stream()
+                .filter(r -> r.getStatus() == StockAdjustmentItemResult.Status.APPLIED)
+                .count();
+        this.failed = results.size() - applied;
+        this.enteredLowStock = enteredLowStock;
+        this.leftLowStock = leftLowStock;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<StockAdjustmentItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<StockAdjustmentItemResult> results) {
+        this.results = results;
+    }
+
+    public List<Long> getEnteredLowStock() {
+        return enteredLowStock;
+    }
+
+    public void setEnteredLowStock(List<Long> enteredLowStock) {
+        this.enteredLowStock = enteredLowStock;
+    }
+
+    public List<Long> getLeftLowStock() {
+        return leftLowStock;
+    }
+
+    public void setLeftLowStock(List<Long> leftLowStock) {
+        this.leftLowStock = leftLowStock;
+    }
+}
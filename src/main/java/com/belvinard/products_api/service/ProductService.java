@@ -1,19 +1,41 @@
 package com.belvinard.products_api.service;
 
 import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
 import com.belvinard.products_api.dto.ProductResponseDTO;
+import com.belvinard.products_api.dto.StockDeltaDTO;
+import com.belvinard.products_api.repository.ProductField;
+import com.belvinard.products_api.response.ProductBatchResponse;
 import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.response.StockAdjustmentResponse;
+import com.belvinard.products_api.service.bulk.ProductImportResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
 
 public interface ProductService {
     //ProductDTO createProduct(ProductDTO productDTO);
     ProductResponseDTO createProduct(ProductDTO productDTO);
-    ProductResponse getAllProducts();
+    ProductBatchResponse createProducts(List<ProductDTO> productDTOs);
+    ProductResponse getAllProducts(ProductSearchCriteria criteria, String cursor, int limit);
+    ProductResponse getAllProducts(ProductSearchCriteria criteria, String cursor, int limit, Set<ProductField> fields);
+    ProductDTO getProductById(Long productId);
     ProductDTO updateProduct(Long productId, ProductDTO productDTO);
+    ProductResponseDTO reserveStock(Long productId, int quantity);
+    ProductResponseDTO releaseStock(Long productId, int quantity);
+    StockAdjustmentResponse adjustStock(List<StockDeltaDTO> deltas);
 
     //ProductDTO deleteProduct(ProductDTO productDTO, Long productId);
     ProductDTO deleteProduct(Long productId);
 
     List<ProductDTO> getLowStockProducts();
+    List<ProductDTO> getLowStockProducts(Set<ProductField> fields);
+
+    List<ProductDTO> searchProducts(String query, int limit);
+
+    void exportProducts(OutputStream outputStream);
+
+    ProductImportResult importProducts(InputStream csv, OutputStream errors);
 }
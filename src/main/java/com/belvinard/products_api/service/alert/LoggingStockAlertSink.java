@@ -0,0 +1,20 @@
+package com.belvinard.products_api.service.alert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class LoggingStockAlertSink implements StockAlertSink {
+    private static final Logger log = LoggerFactory.getLogger(LoggingStockAlertSink.class);
+
+    @Override
+    public void deliver(List<StockAlert> alerts) {
+        for (StockAlert alert : alerts) {
+            log.warn("⚠️ Stock is low for product: {} (id {}, {} unit(s) left)",
+                    alert.productName(), alert.productId(), alert.stockQuantity());
+        }
+    }
+}
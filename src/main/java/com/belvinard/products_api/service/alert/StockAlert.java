@@ -0,0 +1,12 @@
+package com.belvinard.products_api.service.alert;
+
+import com.belvinard.products_api.entity.StockAlertEvent;
+
+import java.time.Instant;
+
+public record StockAlert(Long productId, String productName, int stockQuantity, Instant createdAt) {
+
+    public static StockAlert from(StockAlertEvent event) {
+        return new StockAlert(event.getProductId(), event.getProductName(), event.getStockQuantity(), event.getCreatedAt());
+    }
+}
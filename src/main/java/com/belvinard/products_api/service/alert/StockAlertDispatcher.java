@@ -0,0 +1,92 @@
+package com.belvinard.products_api.service.alert;
+
+import com.belvinard.products_api.entity.StockAlertEvent;
+import com.belvinard.products_api.repository.StockAlertOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Vide l'outbox des alertes de stock par lots, en tâche de fond : les requêtes HTTP
+ * n'attendent jamais la livraison. Un lot n'est supprimé qu'une fois livré à tous
+ * les sinks (livraison au moins une fois).
+ *
+ * Chaque lot est réservé dans une transaction courte (claimNextBatch), puis livré hors
+ * transaction : un webhook lent ne retient ni connexion ni verrou. Chaque sink est appelé
+ * même si un autre échoue ; en cas d'échec, tout le lot est replanifié avec un délai qui
+ * double à chaque tentative, et abandonné (laissé dans l'outbox) après max-attempts.
+ */
+@Component
+public class StockAlertDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(StockAlertDispatcher.class);
+
+    private final StockAlertOutboxRepository outboxRepository;
+    private final List<StockAlertSink> sinks;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration deliveryLease;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    public StockAlertDispatcher(StockAlertOutboxRepository outboxRepository,
+                                List<StockAlertSink> sinks,
+                                @Value("${products.alerts.batch-size}") int batchSize,
+                                @Value("${products.alerts.max-attempts}") int maxAttempts,
+                                @Value("${products.alerts.delivery-lease}") Duration deliveryLease,
+                                @Value("${products.alerts.retry-backoff}") Duration retryBackoff,
+                                @Value("${products.alerts.max-retry-backoff}") Duration maxRetryBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.deliveryLease = deliveryLease;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${products.alerts.dispatch-interval}")
+    public void dispatch() {
+        try {
+            List<StockAlertEvent> batch;
+            do {
+                batch = outboxRepository.claimNextBatch(batchSize, maxAttempts, deliveryLease.toSeconds());
+            } while (!batch.isEmpty() && deliver(batch) && batch.size() == batchSize);
+        } catch (RuntimeException ex) {
+            // Base indisponible : les lots réservés redeviennent dus à la fin de leur bail
+            log.error("Stock alert dispatch failed, will retry", ex);
+        }
+    }
+
+    // Livre le lot à chaque sink ; false si l'un d'eux a échoué (le lot est alors replanifié)
+    private boolean deliver(List<StockAlertEvent> batch) {
+        List<StockAlert> alerts = batch.stream().map(StockAlert::from).toList();
+        RuntimeException failure = null;
+        for (StockAlertSink sink : sinks) {
+            try {
+                sink.deliver(alerts);
+            } catch (RuntimeException ex) {
+                log.warn("Stock alert sink {} failed for {} alert(s)", sink.getClass().getSimpleName(), alerts.size(), ex);
+                failure = ex;
+            }
+        }
+
+        List<Long> ids = batch.stream().map(StockAlertEvent::getId).toList();
+        if (failure == null) {
+            outboxRepository.deleteAllByIdInBatch(ids);
+            return true;
+        }
+
+        outboxRepository.scheduleRetry(ids, retryBackoff.toSeconds(), maxRetryBackoff.toSeconds());
+        long abandoned = batch.stream().filter(event -> event.getAttempts() >= maxAttempts).count();
+        if (abandoned > 0) {
+            log.error("Giving up on {} stock alert(s) after {} attempts; they stay in stock_alert_outbox",
+                    abandoned, maxAttempts, failure);
+        }
+        return false;
+    }
+}
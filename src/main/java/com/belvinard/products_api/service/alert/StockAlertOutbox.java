@@ -0,0 +1,56 @@
+package com.belvinard.products_api.service.alert;
+
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.repository.StockAlertOutboxRepository;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Enregistre les passages en faible stock dans l'outbox, dans la transaction de l'écriture
+ * qui les provoque : l'alerte existe si et seulement si la modification est commitée.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockAlertOutbox {
+
+    private final StockAlertOutboxRepository outboxRepository;
+
+    public StockAlertOutbox(StockAlertOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public void productCreated(Product product) {
+        if (LowStockIndex.isLowStock(product.getStockQuantity())) {
+            outboxRepository.recordLowStock(product.getProductId(), product.getName(), product.getStockQuantity());
+        }
+    }
+
+    public void stockChanged(Product product) {
+        if (LowStockIndex.isLowStock(product.getStockQuantity())) {
+            outboxRepository.recordLowStock(product.getProductId(), product.getName(), product.getStockQuantity());
+        } else {
+            outboxRepository.rearm(product.getProductId());
+        }
+    }
+
+    // Ajustement en masse : appelé seulement pour les produits qui ont franchi le seuil
+    public void lowStockThresholdCrossed(Long productId, String productName, Integer stockQuantity) {
+        if (LowStockIndex.isLowStock(stockQuantity)) {
+            outboxRepository.recordLowStock(productId, productName, stockQuantity);
+        } else {
+            outboxRepository.rearm(productId);
+        }
+    }
+
+    public void productDeleted(Long productId) {
+        outboxRepository.rearm(productId);
+    }
+
+    // Après la fusion d'un import CSV, pour toutes les lignes de la table de staging à la fois
+    public void productsImported() {
+        outboxRepository.recordImportedLowStock(Product.LOW_STOCK_THRESHOLD);
+        outboxRepository.rearmImported(Product.LOW_STOCK_THRESHOLD);
+    }
+}
@@ -0,0 +1,13 @@
+package com.belvinard.products_api.service.alert;
+
+import java.util.List;
+
+/**
+ * Destination des alertes de faible stock. Toute implémentation déclarée comme bean
+ * reçoit chaque lot ; une exception fait rejouer le lot entier, à tous les sinks, après un délai
+ * croissant (les implémentations doivent tolérer les doublons).
+ */
+public interface StockAlertSink {
+
+    void deliver(List<StockAlert> alerts);
+}
@@ -0,0 +1,43 @@
+package com.belvinard.products_api.service.alert;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envoie chaque lot d'alertes en JSON (POST) vers products.alerts.webhook.url.
+ * Actif uniquement si l'URL est configurée.
+ */
+@Component
+@ConditionalOnProperty(name = "products.alerts.webhook.url")
+public class WebhookStockAlertSink implements StockAlertSink {
+
+    private final RestClient restClient;
+
+    public WebhookStockAlertSink(RestClient.Builder restClientBuilder,
+                                 @Value("${products.alerts.webhook.url}") String webhookUrl,
+                                 @Value("${products.alerts.webhook.timeout}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder
+                .baseUrl(webhookUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public void deliver(List<StockAlert> alerts) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(alerts)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,240 @@
+package com.belvinard.products_api.service.bulk;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.exceptions.APIException;
+import com.belvinard.products_api.util.Csv;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import CSV en masse : chaque ligne est validée avec les contraintes de ProductDTO puis envoyée
+ * au fil de l'eau dans une table temporaire par COPY ... FROM STDIN, puis fusionnée dans products :
+ * un UPDATE pour les noms existants, un INSERT pour les nouveaux. Les lignes rejetées sont écrites
+ * dans le flux d'erreurs au moment où elles sont lues : la mémoire reste constante quelle que soit
+ * la taille du fichier.
+ *
+ * Doit être appelé dans la transaction d'écriture de l'appelant : la table de staging
+ * (ON COMMIT DROP) vit sur la connexion de cette transaction.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class ProductCsvImporter {
+
+    public static final String STAGING_TABLE = "import_staging";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE import_staging (
+                line bigint NOT NULL,
+                name varchar(100) NOT NULL,
+                price numeric(38,2) NOT NULL,
+                stock_quantity integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING =
+            "COPY import_staging (line, name, price, stock_quantity) FROM STDIN WITH (FORMAT csv)";
+
+    // Dernière occurrence d'un nom dans le fichier gagnante
+    private static final String CREATE_LATEST = """
+            CREATE TEMP TABLE import_latest ON COMMIT DROP AS
+            SELECT DISTINCT ON (name) name, price, stock_quantity
+            FROM import_staging
+            ORDER BY name, line DESC
+            """;
+
+    // Une ligne identique au produit existant n'est pas réécrite (pas de nouvelle version)
+    private static final String UPDATE_EXISTING = """
+            UPDATE products p
+            SET price = l.price, stock_quantity = l.stock_quantity, version = p.version + 1
+            FROM import_latest l
+            WHERE p.name = l.name
+              AND (p.price, p.stock_quantity) IS DISTINCT FROM (l.price, l.stock_quantity)
+            """;
+
+    // Seuls les noms absents de products appellent nextval : un pas de séquence (50) par produit créé,
+    // aucun pour les lignes mises à jour. ON CONFLICT ne sert plus qu'aux noms créés par une autre
+    // transaction depuis l'UPDATE ; ceux-là sont mis à jour comme les autres.
+    private static final String INSERT_NEW = """
+            WITH merged AS (
+                INSERT INTO products (product_id, name, price, stock_quantity, version)
+                SELECT nextval('products_product_id_seq'), l.name, l.price, l.stock_quantity, 0
+                FROM import_latest l
+                WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.name = l.name)
+                ON CONFLICT (name) DO UPDATE
+                SET price = EXCLUDED.price,
+                    stock_quantity = EXCLUDED.stock_quantity,
+                    version = products.version + 1
+                WHERE (products.price, products.stock_quantity)
+                      IS DISTINCT FROM (EXCLUDED.price, EXCLUDED.stock_quantity)
+                RETURNING xmax = 0 AS inserted
+            )
+            SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM merged
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    public ProductCsvImporter(JdbcTemplate jdbcTemplate, Validator validator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+    }
+
+    public ProductImportResult importCsv(InputStream csv, OutputStream errors) {
+        return jdbcTemplate.execute((ConnectionCallback<ProductImportResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            long[] staged = stage(connection, csv, errors);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_LATEST);
+                // Table temporaire sans statistiques : sans ANALYZE, le planificateur en suppose la taille
+                statement.execute("ANALYZE import_latest");
+                long updated = statement.executeLargeUpdate(UPDATE_EXISTING);
+                try (ResultSet counts = statement.executeQuery(INSERT_NEW)) {
+                    counts.next();
+                    return new ProductImportResult(staged[0], staged[1], counts.getLong(1), updated + counts.getLong(2));
+                }
+            }
+        });
+    }
+
+    // Renvoie {lignes lues, lignes rejetées}
+    private long[] stage(Connection connection, InputStream csv, OutputStream errors) throws SQLException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Writer errorWriter = new BufferedWriter(new OutputStreamWriter(errors, StandardCharsets.UTF_8));
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            Columns columns = Columns.of(reader.readLine());
+            errorWriter.write("line,name,price,stockQuantity,error\n");
+
+            Writer copyWriter = new BufferedWriter(
+                    new OutputStreamWriter(new PGCopyOutputStream(copyIn, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+            long lineNumber = 1;
+            long rows = 0;
+            long rejected = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                rows++;
+                List<String> fields = Csv.parseLine(line);
+                String name = columns.name(fields);
+                String price = columns.price(fields);
+                String stockQuantity = columns.stockQuantity(fields);
+
+                String error = fields.size() != columns.count()
+                        ? "Expected " + columns.count() + " columns but found " + fields.size()
+                        : validate(name, price, stockQuantity);
+                if (error != null) {
+                    rejected++;
+                    errorWriter.write(lineNumber + "," + Csv.quote(name) + "," + Csv.quote(price) + ","
+                            + Csv.quote(stockQuantity) + "," + Csv.quote(error) + "\n");
+                } else {
+                    copyWriter.write(lineNumber + "," + Csv.quote(name) + "," + price.trim() + ","
+                            + stockQuantity.trim() + "\n");
+                }
+            }
+            copyWriter.flush();
+            copyIn.endCopy();
+            errorWriter.flush();
+            return new long[]{rows, rejected};
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Product import interrupted", ex);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    String validate(String name, String price, String stockQuantity) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setName(name);
+        try {
+            productDTO.setPrice(price == null || price.isBlank() ? null : new BigDecimal(price.trim()));
+        } catch (NumberFormatException ex) {
+            return "price: must be a decimal number";
+        }
+        try {
+            productDTO.setStockQuantity(stockQuantity == null || stockQuantity.isBlank() ? null : Integer.valueOf(stockQuantity.trim()));
+        } catch (NumberFormatException ex) {
+            return "stockQuantity: must be an integer";
+        }
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(productDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Position des colonnes attendues dans l'en-tête, quel que soit leur ordre
+    record Columns(int count, int name, int price, int stockQuantity) {
+
+        static Columns of(String header) {
+            if (header == null) {
+                throw new APIException("The CSV file is empty.");
+            }
+            List<String> names = Csv.parseLine(header.replace("\uFEFF", "")).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            int name = names.indexOf("name");
+            int price = names.indexOf("price");
+            int stockQuantity = names.indexOf("stockquantity");
+            if (name < 0 || price < 0 || stockQuantity < 0) {
+                throw new APIException("The CSV header must contain the columns name, price and stockQuantity.");
+            }
+            return new Columns(names.size(), name, price, stockQuantity);
+        }
+
+        String name(List<String> fields) {
+            return field(fields, name);
+        }
+
+        String price(List<String> fields) {
+            return field(fields, price);
+        }
+
+        String stockQuantity(List<String> fields) {
+            return field(fields, stockQuantity);
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index < fields.size() ? fields.get(index) : null;
+        }
+    }
+}
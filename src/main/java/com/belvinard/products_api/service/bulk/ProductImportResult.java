@@ -0,0 +1,8 @@
+package com.belvinard.products_api.service.bulk;
+
+/**
+ * Bilan d'un import CSV : lignes lues, rejetées par la validation, puis produits créés
+ * ou mis à jour par la fusion (les lignes identiques au produit existant ne comptent pas).
+ */
+public record ProductImportResult(long rows, long rejected, long inserted, long updated) {
+}
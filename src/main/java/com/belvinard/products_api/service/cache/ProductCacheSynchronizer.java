@@ -0,0 +1,63 @@
+package com.belvinard.products_api.service.cache;
+
+import com.belvinard.products_api.config.CacheConfig;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Garde le cache "products" cohérent : une mise à jour remplace l'entrée,
+ * une suppression l'invalide, un import CSV le vide. Appliqué après le commit de l'écriture.
+ *
+ * Deux mises à jour du même produit peuvent exécuter leurs listeners dans l'ordre inverse de
+ * leurs commits : l'entrée n'est remplacée que par une version plus récente, de façon atomique.
+ * getProductById charge le cache en mode sync : une lecture commencée avant le commit se termine
+ * avant ce remplacement et ne peut pas l'écraser ensuite.
+ */
+@Component
+public class ProductCacheSynchronizer {
+
+    private final Cache productsCache;
+    private final ConcurrentMap<Object, Object> entries;
+
+    @SuppressWarnings("unchecked")
+    public ProductCacheSynchronizer(CacheManager cacheManager) {
+        this.productsCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        this.entries = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) productsCache.getNativeCache()).asMap();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.product().getId();
+        switch (event.type()) {
+            case UPDATED, STOCK -> entries.compute(productId, (id, cached) -> newer(cached, event.product()));
+            case DELETED -> productsCache.evict(productId);
+            case CREATED -> {
+                // rien à faire : l'entrée sera chargée à la première lecture
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        productsCache.clear();
+    }
+
+    // null retire l'entrée : sans version, impossible de savoir laquelle est la plus récente
+    private static Object newer(Object cached, ProductDTO product) {
+        if (product.getVersion() == null) {
+            return null;
+        }
+        if (cached instanceof ProductDTO current && current.getVersion() != null
+                && current.getVersion() > product.getVersion()) {
+            return current;
+        }
+        return product;
+    }
+}
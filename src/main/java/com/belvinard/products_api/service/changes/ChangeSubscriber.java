@@ -0,0 +1,82 @@
+package com.belvinard.products_api.service.changes;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Un client abonné au flux : une file bornée d'événements déjà sérialisés, vidée vers le client
+ * par un seul thread d'envoi à la fois. offer() ne bloque jamais ; une file pleine signifie que
+ * le client ne suit pas, il est alors déconnecté et reprendra avec Last-Event-ID.
+ */
+final class ChangeSubscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> queue;
+    private final Executor senders;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile boolean closed;
+
+    ChangeSubscriber(SseEmitter emitter, int capacity, Executor senders) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.senders = senders;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean offer(Set<DataWithMediaType> event) {
+        if (closed) {
+            return true;
+        }
+        if (!queue.offer(event)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    void close() {
+        closed = true;
+        queue.clear();
+        emitter.complete();
+    }
+
+    private void schedule() {
+        if (sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // Arrêt de l'application
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client parti ou emitter déjà terminé
+            close();
+        } finally {
+            sending.set(false);
+        }
+        // Un événement arrivé entre le dernier poll() et la remise à false serait sinon oublié
+        if (!closed && !queue.isEmpty()) {
+            schedule();
+        }
+    }
+}
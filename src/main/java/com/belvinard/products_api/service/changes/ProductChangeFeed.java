@@ -0,0 +1,200 @@
+package com.belvinard.products_api.service.changes;
+
+import com.belvinard.products_api.dto.ProductChange;
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Diffuse les changements reçus par ProductChangeListener aux abonnés SSE de GET /changes.
+ *
+ * Les derniers événements sont gardés dans un tampon circulaire borné : un client qui se reconnecte
+ * avec Last-Event-ID reçoit ce qu'il a manqué. Un id est "époque:séquence" ; l'époque change au
+ * redémarrage et à chaque reconnexion LISTEN (des notifications ont pu être perdues entre-temps).
+ * Si l'id est d'une autre époque ou déjà sorti du tampon, le client reçoit un événement reset
+ * et doit recharger la liste.
+ *
+ * Chaque événement est sérialisé une seule fois puis déposé, sans blocage, dans la file bornée de
+ * chaque abonné. Les envois se font sur un petit pool de threads plateforme : SseEmitter.send est
+ * synchronized et épinglerait les threads porteurs s'il tournait sur des threads virtuels (Java 21).
+ */
+@Component
+public class ProductChangeFeed {
+
+    private record Entry(long sequence, Set<DataWithMediaType> event) {
+    }
+
+    private final String instancePrefix = Long.toString(System.currentTimeMillis(), 36);
+    private final Entry[] ring;
+    private final Set<ChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ObjectMapper objectMapper;
+    private final int subscriberQueueSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Counter dropped;
+
+    // Protégés par le verrou de l'instance
+    private int generation;
+    private String epoch;
+    private long lastSequence;
+
+    @Autowired
+    public ProductChangeFeed(ObjectMapper objectMapper,
+                             @Value("${products.changes.buffer-size}") int bufferSize,
+                             @Value("${products.changes.subscriber-queue-size}") int subscriberQueueSize,
+                             @Value("${products.changes.max-subscribers}") int maxSubscribers,
+                             @Value("${products.changes.sender-threads}") int senderThreads,
+                             @Value("${products.changes.timeout}") Duration timeout,
+                             MeterRegistry meterRegistry) {
+        this(objectMapper, bufferSize, subscriberQueueSize, maxSubscribers, timeout, meterRegistry,
+                Executors.newFixedThreadPool(senderThreads,
+                        Thread.ofPlatform().name("products-changes-sender-", 0).daemon().factory()));
+    }
+
+    // Pool d'envoi fourni par les tests
+    ProductChangeFeed(ObjectMapper objectMapper, int bufferSize, int subscriberQueueSize, int maxSubscribers,
+                      Duration timeout, MeterRegistry meterRegistry, ExecutorService senders) {
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.senders = senders;
+        this.epoch = instancePrefix + "." + generation;
+        Gauge.builder("products.changes.subscribers", subscribers, Set::size)
+                .description("Clients subscribed to the product change feed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("products.changes.dropped")
+                .description("Subscribers disconnected because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Too many change feed subscribers, please retry later.", 5);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        ChangeSubscriber subscriber;
+        synchronized (this) {
+            List<Set<DataWithMediaType>> backlog = backlog(lastEventId);
+            subscriber = new ChangeSubscriber(emitter, subscriberQueueSize + backlog.size(), senders);
+            backlog.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public void publish(ProductChange change) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        synchronized (this) {
+            long sequence = ++lastSequence;
+            Set<DataWithMediaType> event = SseEmitter.event()
+                    .id(epoch + ":" + sequence)
+                    .name(change.type().name().toLowerCase(Locale.ROOT))
+                    .data(data)
+                    .build();
+            ring[(int) (sequence % ring.length)] = new Entry(sequence, event);
+            broadcast(event);
+        }
+    }
+
+    // Appelé à chaque (re)connexion LISTEN : ce qui précède ne permet plus une reprise fiable
+    public synchronized void startEpoch() {
+        generation++;
+        epoch = instancePrefix + "." + generation;
+        lastSequence = 0;
+        Arrays.fill(ring, null);
+        broadcast(resetEvent());
+    }
+
+    // Commentaire SSE : garde la connexion ouverte derrière les proxys et détecte les clients partis
+    @Scheduled(fixedRateString = "${products.changes.heartbeat-interval}")
+    public void heartbeat() {
+        broadcast(SseEmitter.event().comment("ping").build());
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(ChangeSubscriber::close);
+        senders.shutdownNow();
+    }
+
+    private void broadcast(Set<DataWithMediaType> event) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                subscribers.remove(subscriber);
+                subscriber.close();
+                dropped.increment();
+            }
+        }
+    }
+
+    private List<Set<DataWithMediaType>> backlog(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of(SseEmitter.event().id(currentId()).name("connected").data(currentId()).build());
+        }
+
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        int separator = lastEventId.lastIndexOf(':');
+        long sequence;
+        try {
+            sequence = separator < 0 ? -1 : Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            sequence = -1;
+        }
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)
+                || sequence < oldest - 1 || sequence > lastSequence) {
+            return List.of(resetEvent());
+        }
+
+        List<Set<DataWithMediaType>> missed = new ArrayList<>((int) (lastSequence - sequence));
+        for (long s = sequence + 1; s <= lastSequence; s++) {
+            missed.add(ring[(int) (s % ring.length)].event());
+        }
+        return missed;
+    }
+
+    private Set<DataWithMediaType> resetEvent() {
+        return SseEmitter.event().id(currentId()).name("reset").data(currentId()).build();
+    }
+
+    private String currentId() {
+        return epoch + ":" + lastSequence;
+    }
+}
@@ -0,0 +1,199 @@
+package com.belvinard.products_api.service.changes;
+
+import com.belvinard.products_api.config.CacheConfig;
+import com.belvinard.products_api.dto.ProductChange;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.belvinard.products_api.service.index.ProductNameIndex;
+import com.belvinard.products_api.service.stats.InventoryStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Écoute le canal products_changes sur une connexion dédiée, hors du pool HikariCP : LISTEN
+ * garde la connexion pour toute la vie de l'application. Chaque notification est diffusée
+ * aux abonnés du flux ; si elle vient d'une autre instance, la version du catalogue et le cache
+ * produit locaux sont invalidés, et le changement est appliqué aux structures en mémoire
+ * (index du faible stock, index des noms, statistiques) comme une écriture locale. Après un
+ * import distant, ces structures sont reconstruites depuis la base.
+ *
+ * En cas de coupure, la connexion est rouverte après reconnect-delay et une nouvelle époque
+ * commence dans le flux (les notifications de l'intervalle sont perdues).
+ */
+@Component
+public class ProductChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeListener.class);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ProductChangeFeed feed;
+    private final ProductChangeNotifier notifier;
+    private final CatalogVersion catalogVersion;
+    private final Cache productsCache;
+    private final LowStockIndex lowStockIndex;
+    private final ProductNameIndex productNameIndex;
+    private final InventoryStats inventoryStats;
+    private final ObjectMapper objectMapper;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public ProductChangeListener(DataSourceProperties dataSourceProperties, ProductChangeFeed feed,
+                                 ProductChangeNotifier notifier, CatalogVersion catalogVersion,
+                                 CacheManager cacheManager, LowStockIndex lowStockIndex,
+                                 ProductNameIndex productNameIndex, InventoryStats inventoryStats,
+                                 ObjectMapper objectMapper,
+                                 @Value("${products.changes.poll-interval}") Duration pollInterval,
+                                 @Value("${products.changes.reconnect-delay}") Duration reconnectDelay) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.feed = feed;
+        this.notifier = notifier;
+        this.catalogVersion = catalogVersion;
+        this.productsCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        this.lowStockIndex = lowStockIndex;
+        this.productNameIndex = productNameIndex;
+        this.inventoryStats = inventoryStats;
+        this.objectMapper = objectMapper;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (thread == null) {
+            running = true;
+            thread = Thread.ofPlatform().name("products-changes-listener").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            closeQuietly(connection);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                listen();
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Lost the {} LISTEN connection, reconnecting in {}: {}",
+                            ProductChangeNotifier.CHANNEL, reconnectDelay, ex.getMessage());
+                }
+            }
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listen() throws SQLException {
+        try (Connection listenConnection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            connection = listenConnection;
+            try (Statement statement = listenConnection.createStatement()) {
+                statement.execute("LISTEN " + ProductChangeNotifier.CHANNEL);
+            }
+            feed.startEpoch();
+            log.info("Listening for product changes on {}", ProductChangeNotifier.CHANNEL);
+
+            PGConnection pgConnection = listenConnection.unwrap(PGConnection.class);
+            while (running) {
+                // Bloque sur la socket jusqu'à la prochaine notification ou poll-interval
+                PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            }
+        } finally {
+            connection = null;
+        }
+    }
+
+    private void dispatch(String payload) {
+        ProductChangeNotifier.Notification notification;
+        try {
+            notification = objectMapper.readValue(payload, ProductChangeNotifier.Notification.class);
+        } catch (IOException ex) {
+            log.warn("Ignoring malformed product change notification: {}", ex.getMessage());
+            return;
+        }
+
+        ProductChange change = notification.change();
+        if (!notifier.origin().equals(notification.origin())) {
+            try {
+                invalidate(change);
+            } catch (RuntimeException ex) {
+                // Reconstruction impossible (base indisponible) : la boucle LISTEN ne doit pas s'arrêter
+                log.warn("Could not apply remote product change {}", change.type(), ex);
+            }
+        }
+        feed.publish(change);
+    }
+
+    // Écriture faite par une autre instance : ses listeners après commit n'ont pas tourné ici
+    void invalidate(ProductChange change) {
+        catalogVersion.increment();
+        if (change.type() == ProductChange.Type.IMPORTED) {
+            productsCache.clear();
+            ProductsImportedEvent event = new ProductsImportedEvent(change.inserted(), change.updated());
+            lowStockIndex.onProductsImported(event);
+            productNameIndex.onProductsImported(event);
+            inventoryStats.onProductsImported(event);
+            return;
+        }
+
+        if (change.type() != ProductChange.Type.CREATED) {
+            // rien en cache pour un produit qui vient d'être créé
+            productsCache.evict(change.product().getId());
+        }
+        ProductChangedEvent event = new ProductChangedEvent(
+                ProductChangedEvent.Type.valueOf(change.type().name()), change.product());
+        lowStockIndex.onProductChanged(event);
+        productNameIndex.onProductChanged(event);
+        inventoryStats.onProductChanged(event);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ex) {
+                // arrêt en cours, la connexion est abandonnée
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.belvinard.products_api.service.changes;
+
+import com.belvinard.products_api.dto.ProductChange;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Envoie chaque écriture sur le canal PostgreSQL products_changes (pg_notify), où toutes les
+ * instances l'écoutent (ProductChangeListener).
+ *
+ * Les notifications d'une transaction sont regroupées et envoyées en une seule requête juste avant
+ * le commit : PostgreSQL ne les délivre qu'au commit, jamais en cas de rollback. Un import CSV
+ * envoie une seule notification IMPORTED plutôt qu'une par ligne.
+ */
+@Component
+public class ProductChangeNotifier {
+
+    static final String CHANNEL = "products_changes";
+
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?) AS payload";
+
+    // Ce qui circule sur le canal : l'instance d'origine permet aux autres d'invalider leurs caches
+    record Notification(String origin, ProductChange change) {
+    }
+
+    private final String origin = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductChangeNotifier(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        notify(ProductChange.of(event));
+    }
+
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        notify(ProductChange.of(event));
+    }
+
+    public String origin() {
+        return origin;
+    }
+
+    private void notify(ProductChange change) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Notification(origin, change));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(payload));
+            return;
+        }
+        PendingNotifications pending = (PendingNotifications) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingNotifications();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.payloads.add(payload);
+    }
+
+    private void send(List<String> payloads) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY)) {
+                statement.setArray(1, connection.createArrayOf("text", payloads.toArray()));
+                statement.execute();
+            }
+            return null;
+        });
+    }
+
+    private final class PendingNotifications implements TransactionSynchronization {
+
+        private final List<String> payloads = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(payloads);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(ProductChangeNotifier.this);
+        }
+    }
+}
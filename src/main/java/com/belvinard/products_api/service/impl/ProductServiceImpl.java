@@ -1,48 +1,168 @@
 package com.belvinard.products_api.service.impl;
 
+import com.belvinard.products_api.config.CacheConfig;
+import com.belvinard.products_api.config.DatabaseConcurrencyGate;
+import com.belvinard.products_api.dto.ProductBatchItemResult;
 import com.belvinard.products_api.dto.ProductDTO;
 import com.belvinard.products_api.dto.ProductResponseDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.dto.StockAdjustmentItemResult;
+import com.belvinard.products_api.dto.StockDeltaDTO;
 import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
 import com.belvinard.products_api.exceptions.APIException;
 import com.belvinard.products_api.exceptions.DuplicateResourceException;
+import com.belvinard.products_api.exceptions.InsufficientStockException;
 import com.belvinard.products_api.exceptions.ResourceNotFoundException;
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductField;
 import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.ProductSort;
+import com.belvinard.products_api.repository.ProductSpecifications;
+import com.belvinard.products_api.repository.ProductStockView;
+import com.belvinard.products_api.repository.StockAdjustmentView;
+import com.belvinard.products_api.response.ProductBatchResponse;
 import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.response.StockAdjustmentResponse;
 import com.belvinard.products_api.service.ProductService;
-import org.modelmapper.ModelMapper;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.bulk.ProductCsvImporter;
+import com.belvinard.products_api.service.bulk.ProductImportResult;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.belvinard.products_api.util.CursorCodec;
+import com.belvinard.products_api.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "products.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class ProductServiceImpl implements ProductService {
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_STOCK_ADJUSTMENTS = 10_000;
+
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LowStockIndex lowStockIndex;
+    private final StockAlertOutbox stockAlertOutbox;
+    private final ProductCsvImporter csvImporter;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final SingleFlight<ListQuery, ProductResponse> listFlights;
+    private final SingleFlight<LowStockQuery, List<ProductDTO>> lowStockFlights;
+    private final DistributionSummary listedRows;
+    private final DatabaseConcurrencyGate databaseGate;   // null si products.db-gate.enabled=false
+
+    // Tout ce dont dépend une page de getAllProducts ; les prix sont normalisés (10.0 == 10.00)
+    private record ListQuery(long catalogVersion, BigDecimal minPrice, BigDecimal maxPrice,
+                             Integer minStock, Integer maxStock, ProductSort sort, String cursor, int limit,
+                             Set<ProductField> fields) {
+
+        static ListQuery of(long catalogVersion, ProductSearchCriteria criteria, String cursor, int limit,
+                            Set<ProductField> fields) {
+            return new ListQuery(catalogVersion, normalize(criteria.getMinPrice()), normalize(criteria.getMaxPrice()),
+                    criteria.getMinStock(), criteria.getMaxStock(), criteria.getSort(), cursor, limit, fields);
+        }
 
-    public ProductServiceImpl(ProductRepository productRepository, ModelMapper modelMapper) {
+        private static BigDecimal normalize(BigDecimal price) {
+            return price == null ? null : price.stripTrailingZeros();
+        }
+    }
+
+    private record LowStockQuery(long catalogVersion, Set<ProductField> fields) {
+    }
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
+                              EntityManager entityManager, ObjectMapper objectMapper,
+                              Validator validator, PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher, LowStockIndex lowStockIndex,
+                              StockAlertOutbox stockAlertOutbox, ProductCsvImporter csvImporter,
+                              CatalogVersion catalogVersion, MeterRegistry meterRegistry,
+                              @Nullable DatabaseConcurrencyGate databaseGate) {
         this.productRepository = productRepository;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.lowStockIndex = lowStockIndex;
+        this.stockAlertOutbox = stockAlertOutbox;
+        this.csvImporter = csvImporter;
+        this.catalogVersion = catalogVersion;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.databaseGate = databaseGate;
+        this.listFlights = new SingleFlight<>("products.list", meterRegistry);
+        this.lowStockFlights = new SingleFlight<>("products.low_stock", meterRegistry);
+        this.listedRows = DistributionSummary.builder("products.list.rows")
+                .description("Number of products returned by one getAllProducts call")
+                .register(meterRegistry);
     }
 
 
     @Override
+    @Transactional
     public ProductResponseDTO createProduct(ProductDTO productDTO) {
         try {
-            Product product = modelMapper.map(productDTO, Product.class);
-            Product savedProduct = productRepository.save(product);
-
-            String alert = null;
-            if (savedProduct.getStockQuantity() < 5) {
-                alert = "⚠️ Stock is low for product: " + savedProduct.getName();
-                log.warn(alert);
-            }
+            Product product = productMapper.toEntity(productDTO);
+            Product savedProduct = productRepository.saveAndFlush(product);
+            stockAlertOutbox.productCreated(savedProduct);
 
-            ProductDTO responseDTO = modelMapper.map(savedProduct, ProductDTO.class);
+            String alert = lowStockAlert(savedProduct);
+            ProductDTO responseDTO = productMapper.toDto(savedProduct);
+            eventPublisher.publishEvent(ProductChangedEvent.created(responseDTO));
             return new ProductResponseDTO(responseDTO, alert);
 
         } catch (DataIntegrityViolationException ex) {
@@ -52,77 +172,528 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public ProductResponse getAllProducts() {
-        List<Product> products = productRepository.findAll();
+    public ProductBatchResponse createProducts(List<ProductDTO> productDTOs) {
+        if (productDTOs == null || productDTOs.isEmpty()) {
+            throw new APIException("The batch must contain at least one product.");
+        }
+        if (productDTOs.size() > MAX_BATCH_SIZE) {
+            throw new APIException("A batch cannot contain more than " + MAX_BATCH_SIZE + " products.");
+        }
 
-        if (products.isEmpty()) {
+        ProductBatchItemResult[] results = new ProductBatchItemResult[productDTOs.size()];
+        Map<Integer, ProductDTO> candidates = new LinkedHashMap<>();
+        Set<String> namesInBatch = new HashSet<>();
+
+        for (int i = 0; i < productDTOs.size(); i++) {
+            ProductDTO productDTO = productDTOs.get(i);
+            Map<String, String> errors = validate(productDTO);
+            if (!errors.isEmpty()) {
+                results[i] = ProductBatchItemResult.validationError(i, productDTO, errors);
+            } else if (!namesInBatch.add(productDTO.getName())) {
+                results[i] = ProductBatchItemResult.duplicateName(i, productDTO);
+            } else {
+                candidates.put(i, productDTO);
+            }
+        }
+
+        // Un seul SELECT pour écarter les noms déjà présents en base
+        if (!candidates.isEmpty()) {
+            Set<String> existingNames = new HashSet<>(productRepository.findExistingNames(namesInBatch));
+            candidates.entrySet().removeIf(entry -> {
+                if (existingNames.contains(entry.getValue().getName())) {
+                    results[entry.getKey()] = ProductBatchItemResult.duplicateName(entry.getKey(), entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!candidates.isEmpty()) {
+            try {
+                insertAll(candidates, results);
+            } catch (DataIntegrityViolationException ex) {
+                // Un nom a été créé entre-temps par une autre requête : on rejoue ligne par ligne
+                log.info("Batch insert hit a constraint violation, retrying {} product(s) one by one", candidates.size());
+                candidates.forEach((index, productDTO) -> results[index] = insertOne(index, productDTO));
+            }
+        }
+
+        return new ProductBatchResponse(Arrays.asList(results));
+    }
+
+    private void insertAll(Map<Integer, ProductDTO> candidates, ProductBatchItemResult[] results) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> products = candidates.values().stream()
+                    .map(productMapper::toEntity)
+                    .toList();
+            List<Product> savedProducts = productRepository.saveAllAndFlush(products);
+
+            int i = 0;
+            for (Integer index : candidates.keySet()) {
+                Product savedProduct = savedProducts.get(i++);
+                stockAlertOutbox.productCreated(savedProduct);
+                ProductDTO savedDTO = productMapper.toDto(savedProduct);
+                results[index] = ProductBatchItemResult.created(index, savedDTO, lowStockAlert(savedProduct));
+                eventPublisher.publishEvent(ProductChangedEvent.created(savedDTO));
+            }
+        });
+    }
+
+    private ProductBatchItemResult insertOne(int index, ProductDTO productDTO) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Product savedProduct = productRepository.saveAndFlush(productMapper.toEntity(productDTO));
+                stockAlertOutbox.productCreated(savedProduct);
+                ProductDTO savedDTO = productMapper.toDto(savedProduct);
+                eventPublisher.publishEvent(ProductChangedEvent.created(savedDTO));
+                return ProductBatchItemResult.created(index, savedDTO, lowStockAlert(savedProduct));
+            });
+        } catch (DataIntegrityViolationException ex) {
+            return ProductBatchItemResult.duplicateName(index, productDTO);
+        }
+    }
+
+    private Map<String, String> validate(ProductDTO productDTO) {
+        if (productDTO == null) {
+            return Map.of("product", "Product cannot be null");
+        }
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<ProductDTO> violation : validator.validate(productDTO)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private String lowStockAlert(Product product) {
+        return lowStockAlert(product.getName(), product.getStockQuantity());
+    }
+
+    private static String lowStockAlert(String name, Integer stockQuantity) {
+        return LowStockIndex.isLowStock(stockQuantity)
+                ? "⚠️ Stock is low for product: " + name
+                : null;
+    }
+
+    // Les appels identiques simultanés partagent une seule requête et une seule réponse : les appelants
+    // ne doivent modifier ni la réponse ni ses DTO. Les listes renvoyées sont immuables (List.copyOf).
+    // La version du catalogue est lue avant : un appel arrivé après une écriture lance sa propre requête.
+    // Pas de @Transactional ici : seul le premier appelant ouvre une transaction, prend une connexion
+    // et un permis de la porte de concurrence (DatabaseConcurrencyGate).
+    @Override
+    public ProductResponse getAllProducts(ProductSearchCriteria criteria, String cursor, int limit) {
+        ListQuery query = ListQuery.of(catalogVersion.current(), criteria, cursor, limit, ProductField.ALL);
+        return listFlights.execute(query, () -> readOnly(status -> loadProducts(criteria, cursor, limit)));
+    }
+
+    // Sous-ensemble de champs : requête en tuples sur les seules colonnes utiles, sans entités
+    @Override
+    public ProductResponse getAllProducts(ProductSearchCriteria criteria, String cursor, int limit,
+                                          Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return getAllProducts(criteria, cursor, limit);
+        }
+        ListQuery query = ListQuery.of(catalogVersion.current(), criteria, cursor, limit, fields);
+        return listFlights.execute(query, () -> readOnly(status -> loadProductFields(criteria, cursor, limit, fields)));
+    }
+
+    // Lecture du meneur d'un appel regroupé : lui seul passe par la porte de concurrence
+    private <T> T readOnly(TransactionCallback<T> action) {
+        return databaseGate == null
+                ? readOnlyTransactionTemplate.execute(action)
+                : databaseGate.call(() -> readOnlyTransactionTemplate.execute(action));
+    }
+
+    private ProductResponse loadProducts(ProductSearchCriteria criteria, String cursor, int limit) {
+        ProductSort sort = criteria.getSort();
+        List<Product> products;
+        boolean firstPage;
+
+        // On lit une ligne de plus que demandé pour savoir s'il existe une page suivante
+        if (sort == ProductSort.ID && !criteria.hasFilters()) {
+            // Cas le plus fréquent : simple parcours de la clé primaire
+            Long afterProductId = CursorCodec.decode(cursor);
+            firstPage = afterProductId == null;
+            products = productRepository.findByProductIdGreaterThanOrderByProductIdAsc(
+                    firstPage ? 0L : afterProductId, Limit.of(limit + 1));
+        } else {
+            CursorCodec.Position after = position(sort, cursor);
+            firstPage = after == null;
+            Specification<Product> specification = ProductSpecifications.matching(criteria)
+                    .and(ProductSpecifications.after(sort, after));
+            products = productRepository.findBy(specification,
+                    query -> query.sortBy(sort.sort()).limit(limit + 1).all());
+        }
+
+        if (products.isEmpty() && firstPage && !criteria.hasFilters()) {
             throw new APIException("No products create until now !!!");
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+        boolean hasNext = products.size() > limit;
+        List<Product> page = hasNext ? products.subList(0, limit) : products;
+        listedRows.record(page.size());
+
+        // Un seul passage sur la page : conversion en DTO et alertes des produits de la page courante
+        List<ProductDTO> productDTOS = new ArrayList<>(page.size());
+        List<String> alerts = new ArrayList<>();
+        for (Product product : page) {
+            productDTOS.add(productMapper.toDto(product));
+            String alert = lowStockAlert(product);
+            if (alert != null) {
+                alerts.add(alert);
+            }
+        }
 
-        List<String> alerts = products.stream()
-                .filter(p -> p.getStockQuantity() < 5)
-                .map(p -> "⚠️ Stock is low for product: " + p.getName())
-                .toList();
+        String nextCursor = hasNext ? nextCursor(sort, page.get(page.size() - 1)) : null;
 
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setAlerts(alerts);  // Ajout de la liste d'alertes
+        productResponse.setContent(List.copyOf(productDTOS));
+        productResponse.setAlerts(List.copyOf(alerts));  // Ajout de la liste d'alertes
+        productResponse.setNextCursor(nextCursor);
 
         return productResponse;
     }
 
 
 
+    private ProductResponse loadProductFields(ProductSearchCriteria criteria, String cursor, int limit,
+                                              Set<ProductField> fields) {
+        ProductSort sort = criteria.getSort();
+        CursorCodec.Position after = position(sort, cursor);
+        Specification<Product> specification = ProductSpecifications.matching(criteria)
+                .and(ProductSpecifications.after(sort, after));
+
+        Set<ProductField> columns = EnumSet.copyOf(fields);
+        columns.addAll(sort.cursorFields());
+        List<ProductDTO> products = productRepository.findFields(columns, specification, sort.sort(), Limit.of(limit + 1));
+
+        if (products.isEmpty() && after == null && !criteria.hasFilters()) {
+            throw new APIException("No products create until now !!!");
+        }
+
+        boolean hasNext = products.size() > limit;
+        List<ProductDTO> page = hasNext ? products.subList(0, limit) : products;
+        listedRows.record(page.size());
+        String nextCursor = hasNext ? nextCursor(sort, page.get(page.size() - 1)) : null;
+
+        // Les alertes ne sont calculées que si le nom et le stock font partie des champs demandés
+        boolean withAlerts = fields.contains(ProductField.NAME) && fields.contains(ProductField.STOCK_QUANTITY);
+        List<String> alerts = new ArrayList<>();
+        for (ProductDTO product : page) {
+            String alert = withAlerts ? lowStockAlert(product.getName(), product.getStockQuantity()) : null;
+            if (alert != null) {
+                alerts.add(alert);
+            }
+            ProductField.retainOnly(product, fields);
+        }
+
+        return new ProductResponse(List.copyOf(page), List.copyOf(alerts), nextCursor);
+    }
+
+    // Le tri par id sans filtre produit des curseurs réduits à l'id : on les accepte quel que soit le chemin
+    private static CursorCodec.Position position(ProductSort sort, String cursor) {
+        if (sort == ProductSort.ID) {
+            Long afterProductId = CursorCodec.decode(cursor);
+            return afterProductId == null ? null : new CursorCodec.Position(afterProductId.toString(), afterProductId);
+        }
+        return CursorCodec.decode(cursor, sort.name());
+    }
+
+    private static String nextCursor(ProductSort sort, Product last) {
+        return sort == ProductSort.ID
+                ? CursorCodec.encode(last.getProductId())
+                : CursorCodec.encode(sort.name(), sort.sortValue(last), last.getProductId());
+    }
+
+    private static String nextCursor(ProductSort sort, ProductDTO last) {
+        return sort == ProductSort.ID
+                ? CursorCodec.encode(last.getId())
+                : CursorCodec.encode(sort.name(), sort.sortValue(last), last.getId());
+    }
+
     @Override
-    public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
-        Product existingProduct = productRepository.findById(productId)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId", sync = true)
+    @Transactional(readOnly = true)
+    public ProductDTO getProductById(Long productId) {
+        Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        Product productByName = productRepository.findByName(productDTO.getName());
+        return productMapper.toDto(product);
+    }
 
-        if (productByName != null && !productByName.getProductId().equals(productId)) {
+    @Override
+    @Transactional
+    public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
+        Product updatedProduct;
+        try {
+            updatedProduct = productRepository.updateReturning(productId, productDTO.getName(),
+                            productDTO.getPrice(), productDTO.getStockQuantity(), productDTO.getVersion())
+                    .orElseThrow(() -> updateFailure(productId, productDTO.getVersion()));
+        } catch (DataIntegrityViolationException ex) {
             throw new DuplicateResourceException("A product with the name '" + productDTO.getName() + "' already exists.");
         }
 
-        existingProduct.setName(productDTO.getName());
-        existingProduct.setPrice(productDTO.getPrice());
-        existingProduct.setStockQuantity(productDTO.getStockQuantity());
+        stockAlertOutbox.stockChanged(updatedProduct);
+
+        ProductDTO updatedDTO = productMapper.toDto(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updatedDTO));
+        return updatedDTO;
+
+    }
 
-        Product updatedProduct = productRepository.save(existingProduct);
 
-        if (updatedProduct.getStockQuantity() < 5) {
-            log.warn("⚠️ Stock alert (update): Product '{}' has only {} unit(s) in stock.",
-                    updatedProduct.getName(), updatedProduct.getStockQuantity());
+    // Appelé seulement en cas d'échec : distingue produit absent et version périmée
+    private RuntimeException updateFailure(Long productId, Long expectedVersion) {
+        if (expectedVersion != null && productRepository.existsById(productId)) {
+            return new ObjectOptimisticLockingFailureException(Product.class, productId);
         }
+        return new ResourceNotFoundException("Product", "productId", productId);
+    }
 
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+    @Override
+    @Transactional
+    public ProductResponseDTO reserveStock(Long productId, int quantity) {
+        Product product = productRepository.reserveStock(productId, quantity)
+                .orElseThrow(() -> productRepository.existsById(productId)
+                        ? new InsufficientStockException("Not enough stock to reserve " + quantity + " unit(s) of product " + productId + ".")
+                        : new ResourceNotFoundException("Product", "productId", productId));
+
+        return stockChanged(product);
+    }
 
+    @Override
+    @Transactional
+    public ProductResponseDTO releaseStock(Long productId, int quantity) {
+        Product product = productRepository.releaseStock(productId, quantity)
+                .orElseThrow(() -> productRepository.existsById(productId)
+                        ? new APIException("Releasing " + quantity + " unit(s) would exceed the maximum stock of product " + productId + ".")
+                        : new ResourceNotFoundException("Product", "productId", productId));
+
+        return stockChanged(product);
+    }
+
+    // L'alerte est calculée à partir de la ligne renvoyée par l'UPDATE, sans seconde requête
+    private ProductResponseDTO stockChanged(Product product) {
+        stockAlertOutbox.stockChanged(product);
+        String alert = lowStockAlert(product);
+
+        ProductDTO productDTO = productMapper.toDto(product);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productDTO));
+        return new ProductResponseDTO(productDTO, alert);
     }
 
 
     @Override
+    @Transactional
+    public StockAdjustmentResponse adjustStock(List<StockDeltaDTO> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            throw new APIException("The adjustment list must contain at least one item.");
+        }
+        if (deltas.size() > MAX_STOCK_ADJUSTMENTS) {
+            throw new APIException("An adjustment list cannot contain more than " + MAX_STOCK_ADJUSTMENTS + " items.");
+        }
+
+        // Un produit ne peut apparaître qu'une fois dans l'UPDATE : ses deltas sont additionnés
+        Map<Long, Integer> totals = new LinkedHashMap<>();
+        for (StockDeltaDTO delta : deltas) {
+            if (delta.getProductId() == null || delta.getDelta() == null) {
+                throw new APIException("Each adjustment needs a productId and a delta.");
+            }
+            try {
+                totals.merge(delta.getProductId(), delta.getDelta(), Math::addExact);
+            } catch (ArithmeticException ex) {
+                throw new APIException("The deltas for product " + delta.getProductId() + " overflow.");
+            }
+        }
+
+        // Lignes verrouillées par id croissant avant l'UPDATE, qui les retrouve déjà verrouillées : pas
+        // d'interblocage entre lots concurrents. Le stock lu sous verrou explique les refus (produit absent,
+        // stock insuffisant ou hors de l'intervalle d'un integer) sans autre lecture.
+        Map<Long, Integer> sorted = new TreeMap<>(totals);
+        Map<Long, Integer> currentStock = new HashMap<>(sorted.size() * 2);
+        for (ProductStockView view : productRepository.lockStock(sorted.keySet().toArray(Long[]::new))) {
+            currentStock.put(view.getProductId(), view.getStockQuantity());
+        }
+
+        List<StockAdjustmentView> rows = currentStock.isEmpty() ? List.of() : productRepository.adjustStock(
+                sorted.keySet().toArray(Long[]::new), sorted.values().toArray(Integer[]::new));
+        Map<Long, StockAdjustmentView> applied = new HashMap<>(rows.size() * 2);
+        for (StockAdjustmentView row : rows) {
+            applied.put(row.getProductId(), row);
+        }
+
+        List<StockAdjustmentItemResult> results = new ArrayList<>(totals.size());
+        List<Long> enteredLowStock = new ArrayList<>();
+        List<Long> leftLowStock = new ArrayList<>();
+        for (Map.Entry<Long, Integer> total : totals.entrySet()) {
+            Long productId = total.getKey();
+            int delta = total.getValue();
+            StockAdjustmentView row = applied.get(productId);
+            if (row == null) {
+                Integer stock = currentStock.get(productId);
+                if (stock == null) {
+                    results.add(StockAdjustmentItemResult.notFound(productId, delta));
+                } else if ((long) stock + delta > Integer.MAX_VALUE) {
+                    results.add(StockAdjustmentItemResult.stockOutOfRange(productId, delta, stock));
+                } else {
+                    results.add(StockAdjustmentItemResult.insufficientStock(productId, delta, stock));
+                }
+                continue;
+            }
+
+            results.add(StockAdjustmentItemResult.applied(productId, delta,
+                    row.getPreviousStockQuantity(), row.getStockQuantity()));
+            boolean wasLow = LowStockIndex.isLowStock(row.getPreviousStockQuantity());
+            boolean isLow = LowStockIndex.isLowStock(row.getStockQuantity());
+            if (wasLow != isLow) {
+                (isLow ? enteredLowStock : leftLowStock).add(productId);
+                stockAlertOutbox.lowStockThresholdCrossed(productId, row.getName(), row.getStockQuantity());
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(new ProductDTO(
+                    productId, row.getName(), row.getPrice(), row.getStockQuantity(), row.getVersion())));
+        }
+
+        return new StockAdjustmentResponse(results, enteredLowStock, leftLowStock);
+    }
+
+    @Override
+    @Transactional
     public ProductDTO deleteProduct(Long productId) {
         Product product = productRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product with id " + productId + " not found"));
 
         productRepository.delete(product);
+        stockAlertOutbox.productDeleted(productId);
 
-        return modelMapper.map(product, ProductDTO.class);
+        ProductDTO deletedDTO = productMapper.toDto(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(deletedDTO));
+        return deletedDTO;
     }
 
+    // Même regroupement que getAllProducts, par version du catalogue : la liste partagée est immuable
     @Override
     public List<ProductDTO> getLowStockProducts() {
-        List<Product> lowStockProducts = productRepository.findByStockQuantityLessThan(5);
+        requireLowStockIndex();
+        return lowStockFlights.execute(new LowStockQuery(catalogVersion.current(), ProductField.ALL),
+                () -> readOnly(status -> loadLowStockProducts()));
+    }
+
+    @Override
+    public List<ProductDTO> getLowStockProducts(Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return getLowStockProducts();
+        }
+        requireLowStockIndex();
+        return lowStockFlights.execute(new LowStockQuery(catalogVersion.current(), fields),
+                () -> readOnly(status -> loadLowStockProductFields(fields)));
+    }
+
+    // Avant la première reconstruction, une liste vide serait servie (et mise en cache par les clients via l'ETag)
+    private void requireLowStockIndex() {
+        if (!lowStockIndex.ready()) {
+            throw new ServiceBusyException("The low-stock index is loading, please retry later.", 1);
+        }
+    }
 
-        return lowStockProducts.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+    private List<ProductDTO> loadLowStockProducts() {
+        List<Long> lowStockIds = lowStockIndex.productIds();
+        if (lowStockIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Lecture par clé primaire des seuls produits indexés, le filtre protège d'un index en retard
+        List<Product> lowStockProducts = productRepository.findAllById(lowStockIds).stream()
+                .filter(product -> LowStockIndex.isLowStock(product.getStockQuantity()))
+                .sorted(Comparator.comparing(Product::getProductId))
                 .toList();
+
+        return List.copyOf(productMapper.toDtoList(lowStockProducts));
+    }
+
+    private List<ProductDTO> loadLowStockProductFields(Set<ProductField> fields) {
+        List<Long> lowStockIds = lowStockIndex.productIds();
+        if (lowStockIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Le stock est toujours lu : il sert à écarter les produits sortis du faible stock depuis l'indexation
+        Set<ProductField> columns = EnumSet.copyOf(fields);
+        columns.add(ProductField.STOCK_QUANTITY);
+        List<ProductDTO> lowStockProducts = new ArrayList<>();
+        for (ProductDTO product : productRepository.findFields(columns, ProductSpecifications.idIn(lowStockIds),
+                ProductSort.ID.sort(), Limit.unlimited())) {
+            if (LowStockIndex.isLowStock(product.getStockQuantity())) {
+                ProductField.retainOnly(product, fields);
+                lowStockProducts.add(product);
+            }
+        }
+        return List.copyOf(lowStockProducts);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> searchProducts(String query, int limit) {
+        // @Size s'applique avant trim() : "  ab  " passerait la validation du contrôleur
+        String trimmed = query.trim();
+        if (trimmed.length() < 3) {
+            throw new APIException("The search query must contain at least 3 characters.");
+        }
 
+        // Les caractères spéciaux de LIKE sont échappés : la saisie est toujours cherchée telle quelle
+        String pattern = trimmed
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+
+        return productMapper.toDtoList(productRepository.searchByName(pattern, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Product> products = productRepository.streamAllOrderByProductId();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.writeValue(generator, productMapper.toDto(product));
+                generator.writeRaw('\n');
+                // On détache chaque ligne pour que le contexte de persistance reste vide
+                entityManager.detach(product);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Product export interrupted", ex);
+        }
+    }
+
+    @Override
+    public ProductImportResult importProducts(InputStream csv, OutputStream errors) {
+        ProductImportResult result = transactionTemplate.execute(status -> {
+            ProductImportResult imported = csvImporter.importCsv(csv, errors);
+            stockAlertOutbox.productsImported();
+            return imported;
+        });
+
+        log.info("CSV import: {} row(s), {} rejected, {} created, {} updated",
+                result.rows(), result.rejected(), result.inserted(), result.updated());
+        if (result.inserted() + result.updated() > 0) {
+            eventPublisher.publishEvent(new ProductsImportedEvent(result.inserted(), result.updated()));
+        }
+
+        // Dernière ligne du fichier d'erreurs, écrite seulement une fois l'import commité
+        try {
+            errors.write(("# rows=" + result.rows() + ",rejected=" + result.rejected()
+                    + ",created=" + result.inserted() + ",updated=" + result.updated() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Product import interrupted", ex);
+        }
+        return result;
+    }
 
 }
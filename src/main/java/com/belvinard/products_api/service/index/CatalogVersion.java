@@ -0,0 +1,51 @@
+package com.belvinard.products_api.service.index;
+
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numéro de version du catalogue, incrémenté après le commit de chaque écriture.
+ * Sert d'ETag fort aux endpoints de lecture : tant qu'il ne bouge pas, une requête
+ * portant If-None-Match reçoit 304 sans toucher la base.
+ *
+ * Le préfixe d'instance évite qu'un ETag émis par une autre instance (ou avant un
+ * redémarrage) soit pris pour la version courante.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String instancePrefix = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        increment();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    // À lire AVANT d'interroger la base : au pire l'ETag est en retard et le client recharge une fois de trop
+    public String etag() {
+        return "\"" + instancePrefix + "-" + version.get() + "\"";
+    }
+
+    // Une représentation (json, cbor, smile, x-protobuf) n'a pas les mêmes octets qu'une autre : ETag distinct
+    public String etag(String representation) {
+        return "\"" + instancePrefix + "-" + version.get() + "-" + representation + "\"";
+    }
+}
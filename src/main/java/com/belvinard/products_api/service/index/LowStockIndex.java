@@ -0,0 +1,129 @@
+package com.belvinard.products_api.service.index;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.belvinard.products_api.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ensemble trié des ids des produits en faible stock, tenu à jour à chaque écriture.
+ * Chargé au démarrage depuis l'index partiel idx_products_low_stock, puis recalculé
+ * périodiquement pour rattraper les écritures faites par d'autres instances.
+ *
+ * Les événements reçus pendant qu'une reconstruction lit la base sont appliqués à l'ensemble
+ * courant et mémorisés, puis rejoués sur le nouvel ensemble avant de le publier : la lecture
+ * a pu se faire avant leur commit.
+ *
+ * GET /low-stock est servi depuis cet index avec un ETag tiré de CatalogVersion : une
+ * reconstruction qui change l'ensemble incrémente la version (sinon un import ou une écriture
+ * d'une autre instance laisserait des 304 sur un contenu périmé), et l'index n'est pas
+ * prêt (ready() == false) tant que la première reconstruction n'a pas abouti.
+ */
+@Component
+public class LowStockIndex {
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final Object rebuildLock = new Object();
+    private volatile ConcurrentSkipListSet<Long> productIds = new ConcurrentSkipListSet<>();
+    private volatile boolean ready;
+
+    // Protégé par le verrou de l'instance ; non null pendant une reconstruction
+    private List<ProductChangedEvent> changedDuringRebuild;
+
+    public LowStockIndex(ProductRepository productRepository, CatalogVersion catalogVersion,
+                         MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        Gauge.builder("products.low_stock.count", this, LowStockIndex::size)
+                .description("Number of products currently below the low-stock threshold")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${products.low-stock.refresh-interval}",
+            initialDelayString = "${products.low-stock.refresh-interval}")
+    public void rebuild() {
+        // Une seule reconstruction à la fois ; les événements ne sont pas bloqués pendant la requête
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new ArrayList<>();
+            }
+            List<Long> lowStockIds;
+            try {
+                lowStockIds = productRepository.findLowStockProductIds();
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw ex;
+            }
+            ConcurrentSkipListSet<Long> rebuilt = new ConcurrentSkipListSet<>(lowStockIds);
+            synchronized (this) {
+                changedDuringRebuild.forEach(event -> apply(rebuilt, event));
+                boolean changed = !ready || !rebuilt.equals(productIds);
+                productIds = rebuilt;
+                changedDuringRebuild = null;
+                ready = true;
+                if (changed) {
+                    catalogVersion.increment();
+                }
+            }
+            log.debug("Low-stock index rebuilt with {} product(s)", rebuilt.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        apply(productIds, event);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(event);
+        }
+    }
+
+    private static void apply(ConcurrentSkipListSet<Long> productIds, ProductChangedEvent event) {
+        ProductDTO product = event.product();
+        if (event.type() != ProductChangedEvent.Type.DELETED && isLowStock(product.getStockQuantity())) {
+            productIds.add(product.getId());
+        } else {
+            productIds.remove(product.getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    public static boolean isLowStock(Integer stockQuantity) {
+        return stockQuantity != null && stockQuantity < Product.LOW_STOCK_THRESHOLD;
+    }
+
+    // false jusqu'à la fin de la première reconstruction : l'ensemble vide ne veut encore rien dire
+    public boolean ready() {
+        return ready;
+    }
+
+    public List<Long> productIds() {
+        return List.copyOf(productIds);
+    }
+
+    public int size() {
+        return productIds.size();
+    }
+}
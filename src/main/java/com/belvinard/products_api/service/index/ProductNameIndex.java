@@ -0,0 +1,133 @@
+package com.belvinard.products_api.service.index;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.belvinard.products_api.repository.ProductNameView;
+import com.belvinard.products_api.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index trié des noms de produits pour l'autocomplétion par préfixe, sans accès à la base.
+ * Les clés sont "nom en minuscules + \0 + id" : la recherche est insensible à la casse et
+ * deux noms qui ne diffèrent que par la casse restent distincts.
+ *
+ * Comme pour LowStockIndex, les événements reçus pendant la lecture d'une reconstruction sont
+ * rejoués sur le nouvel index avant sa publication.
+ */
+@Component
+public class ProductNameIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private record Entries(ConcurrentNavigableMap<String, String> byKey, ConcurrentHashMap<Long, String> keyById) {
+    }
+
+    private final ProductRepository productRepository;
+    private final Object rebuildLock = new Object();
+    private volatile Entries entries = new Entries(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+
+    // Protégé par le verrou de l'instance ; non null pendant une reconstruction
+    private List<ProductChangedEvent> changedDuringRebuild;
+
+    public ProductNameIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${products.suggest.refresh-interval}",
+            initialDelayString = "${products.suggest.refresh-interval}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new ArrayList<>();
+            }
+            Entries rebuilt = new Entries(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+            try {
+                for (ProductNameView view : productRepository.findAllNames()) {
+                    put(rebuilt, view.getProductId(), view.getName());
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw ex;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach(event -> apply(rebuilt, event));
+                entries = rebuilt;
+                changedDuringRebuild = null;
+            }
+            log.debug("Product name index rebuilt with {} name(s)", rebuilt.keyById().size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        apply(entries, event);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        ConcurrentNavigableMap<String, String> matches =
+                entries.byKey().subMap(from, true, from + Character.MAX_VALUE, false);
+
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (String name : matches.values()) {
+            if (names.size() == limit) {
+                break;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private static void apply(Entries entries, ProductChangedEvent event) {
+        ProductDTO product = event.product();
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            remove(entries, product.getId());
+        } else {
+            put(entries, product.getId(), product.getName());
+        }
+    }
+
+    private static void put(Entries entries, Long productId, String name) {
+        String key = normalize(name) + '\0' + productId;
+        String previousKey = entries.keyById().put(productId, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            entries.byKey().remove(previousKey);
+        }
+        entries.byKey().put(key, name);
+    }
+
+    private static void remove(Entries entries, Long productId) {
+        String key = entries.keyById().remove(productId);
+        if (key != null) {
+            entries.byKey().remove(key);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,127 @@
+package com.belvinard.products_api.service.stats;
+
+import com.belvinard.products_api.dto.InventoryStatsDTO;
+import com.belvinard.products_api.dto.InventoryStatsDTO.StockBucket;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.StockBucketStatsView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistiques d'inventaire (valeur totale, prix min / max / moyen, produits par tranche de stock)
+ * calculées par la base : une requête d'agrégation renvoie une ligne par tranche de stock, la mémoire
+ * ne garde que l'instantané, quelle que soit la taille du catalogue.
+ *
+ * Une écriture ne fait qu'incrémenter un compteur ; la lecture suivante relance l'agrégation, une
+ * lecture sans écriture depuis le dernier calcul renvoie l'instantané tel quel. Les lectures
+ * concurrentes partagent le même calcul. Le compteur est lu avant la requête : une écriture validée
+ * pendant qu'elle tourne déclenche un nouveau calcul à la lecture suivante.
+ */
+@Component
+public class InventoryStats {
+    private static final Logger log = LoggerFactory.getLogger(InventoryStats.class);
+
+    private final ProductRepository productRepository;
+    private final Object refreshLock = new Object();
+    private final AtomicLong writes = new AtomicLong();
+
+    private volatile long computedAtWrite = -1;   // valeur de writes lue avant la requête du dernier calcul
+    private volatile InventoryStatsDTO snapshot = snapshot(List.of(), null);
+
+    public InventoryStats(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    // Recalcul complet, même sans écriture : prend en compte les modifications faites hors de l'API
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${products.stats.reconcile-interval}",
+            initialDelayString = "${products.stats.reconcile-interval}")
+    public void reconcile() {
+        synchronized (refreshLock) {
+            refresh(writes.get());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        writes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        writes.incrementAndGet();
+    }
+
+    public InventoryStatsDTO snapshot() {
+        long seen = writes.get();
+        if (computedAtWrite == seen) {
+            return snapshot;
+        }
+        synchronized (refreshLock) {
+            // Un calcul commencé après notre arrivée a vu toutes les écritures que nous devons voir
+            if (computedAtWrite < seen) {
+                try {
+                    refresh(writes.get());
+                } catch (RuntimeException ex) {
+                    log.warn("Could not refresh inventory stats, serving the ones computed at {}",
+                            snapshot.getReconciledAt(), ex);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    // Appelé sous refreshLock
+    private void refresh(long seen) {
+        Instant now = Instant.now();
+        List<StockBucketStatsView> rows = productRepository.aggregateStockBuckets(
+                Product.LOW_STOCK_THRESHOLD, StockBucket.HIGH_STOCK_THRESHOLD);
+        snapshot = snapshot(rows, now);
+        computedAtWrite = seen;
+        log.debug("Inventory stats computed with {} product(s)", snapshot.getProductCount());
+    }
+
+    private static InventoryStatsDTO snapshot(List<StockBucketStatsView> rows, Instant reconciledAt) {
+        Map<StockBucket, Long> buckets = new EnumMap<>(StockBucket.class);
+        for (StockBucket bucket : StockBucket.values()) {
+            buckets.put(bucket, 0L);
+        }
+        long count = 0;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal priceSum = BigDecimal.ZERO;
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        for (StockBucketStatsView row : rows) {
+            buckets.put(StockBucket.valueOf(row.getBucket()), row.getProductCount());
+            count += row.getProductCount();
+            totalValue = totalValue.add(row.getTotalValue());
+            priceSum = priceSum.add(row.getPriceSum());
+            minPrice = minPrice == null || row.getMinPrice().compareTo(minPrice) < 0 ? row.getMinPrice() : minPrice;
+            maxPrice = maxPrice == null || row.getMaxPrice().compareTo(maxPrice) > 0 ? row.getMaxPrice() : maxPrice;
+        }
+        return new InventoryStatsDTO(
+                count,
+                totalValue,
+                minPrice,
+                maxPrice,
+                count == 0 ? null : priceSum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_EVEN),
+                buckets,
+                reconciledAt);
+    }
+}
@@ -0,0 +1,69 @@
+package com.belvinard.products_api.util;
+
+import com.belvinard.products_api.exceptions.APIException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque keyset cursors handed out by the list endpoints.
+ * Clients must treat the cursor as an opaque token and send it back unchanged.
+ *
+ * A cursor for the default id order only holds the last productId; other orders
+ * hold "sortName:sortValue:productId" so the next page can resume after that row.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Position(String sortValue, Long productId) {
+    }
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long lastProductId) {
+        return encodeRaw(String.valueOf(lastProductId));
+    }
+
+    public static String encode(String sortName, String sortValue, Long lastProductId) {
+        return encodeRaw(sortName + ":" + sortValue + ":" + lastProductId);
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(decodeRaw(cursor));
+        } catch (IllegalArgumentException ex) {
+            throw new APIException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static Position decode(String cursor, String expectedSortName) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = decodeRaw(cursor);
+            int first = raw.indexOf(':');
+            int last = raw.lastIndexOf(':');
+            if (first < 0 || first == last || !raw.substring(0, first).equals(expectedSortName)) {
+                throw new APIException("This cursor was not issued for sort " + expectedSortName + ": " + cursor);
+            }
+            return new Position(raw.substring(first + 1, last), Long.valueOf(raw.substring(last + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new APIException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeRaw(String cursor) {
+        return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+    }
+}
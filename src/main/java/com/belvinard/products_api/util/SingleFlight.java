@@ -0,0 +1,70 @@
+package com.belvinard.products_api.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Regroupe les appels identiques simultanés : le premier appelant pour une clé exécute le
+ * chargement, ceux qui arrivent pendant qu'il est en cours attendent et reçoivent le même
+ * résultat (ou la même exception). Rien n'est gardé une fois le chargement terminé : l'appel
+ * suivant relance une requête, ce n'est pas un cache.
+ *
+ * La clé doit contenir tout ce dont dépend le résultat, y compris la version des données,
+ * pour qu'un appel arrivé après une écriture ne rejoigne pas une lecture antérieure.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Counter joined;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.joined = Counter.builder("products.single_flight.joined")
+                .description("Calls served by a load already in flight for the same key")
+                .tag("flight", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            joined.increment();
+            return await(inFlight);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    // Les appelants en attente reçoivent l'exception d'origine, pas une CompletionException
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    public int inFlight() {
+        return flights.size();
+    }
+}
@@ -0,0 +1,62 @@
+-- Schéma complet de l'application, idempotent : chaque instruction peut être rejouée.
+-- Profil par défaut : exécuté à chaque démarrage après la mise à jour du schéma par Hibernate
+-- (spring.jpa.defer-datasource-initialization=true).
+-- Profil prod : les instances ne touchent pas au schéma ; le déploiement applique ce fichier avant
+-- la mise en service (psql -v ON_ERROR_STOP=1 -f src/main/resources/schema.sql).
+
+-- Les ids sont alloués par blocs de 50 (allocationSize de Product) pour permettre le batching des INSERT ;
+-- l'ALTER corrige une séquence créée auparavant avec un autre pas
+CREATE SEQUENCE IF NOT EXISTS products_product_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE products_product_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    product_id bigint NOT NULL,
+    name varchar(100) NOT NULL,
+    price numeric(38,2) NOT NULL,
+    stock_quantity integer NOT NULL,
+    version bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id),
+    CONSTRAINT products_name_key UNIQUE (name)
+);
+
+-- Outbox des alertes de stock (StockAlertEvent), vidée par StockAlertDispatcher
+CREATE TABLE IF NOT EXISTS stock_alert_outbox (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    product_id bigint NOT NULL,
+    product_name varchar(100) NOT NULL,
+    stock_quantity integer NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    next_attempt_at timestamp(6) with time zone NOT NULL DEFAULT now(),
+    PRIMARY KEY (id)
+);
+-- Suivi des livraisons échouées : absent des tables créées avant son ajout
+ALTER TABLE stock_alert_outbox ADD COLUMN IF NOT EXISTS attempts integer NOT NULL DEFAULT 0;
+ALTER TABLE stock_alert_outbox ADD COLUMN IF NOT EXISTS next_attempt_at timestamp(6) with time zone NOT NULL DEFAULT now();
+
+-- Index partiel : seuls les produits en faible stock (< Product.LOW_STOCK_THRESHOLD) y figurent
+CREATE INDEX IF NOT EXISTS idx_products_low_stock ON products (product_id) WHERE stock_quantity < 5;
+
+-- Colonne de version (@Version) : absente des tables créées avant son ajout,
+-- les lignes antérieures démarrent à 0
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint;
+UPDATE products SET version = 0 WHERE version IS NULL;
+ALTER TABLE products ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE products ALTER COLUMN version SET NOT NULL;
+
+-- Alertes de stock déjà émises : une ligne par produit actuellement en faible stock et déjà signalé
+CREATE TABLE IF NOT EXISTS low_stock_alert_state (
+    product_id bigint PRIMARY KEY,
+    alerted_at timestamp with time zone NOT NULL
+);
+
+-- Recherche par sous-chaîne (GET /api/products/search) : index trigramme sur le nom
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+
+-- Tris et filtres de la liste (sort=PRICE_*, sort=STOCK) : la clé de tri suivie de l'id
+-- permet de reprendre la pagination par curseur sans trier ni relire les pages précédentes.
+-- Un filtre sur une autre colonne que la clé de tri (minPrice + sort=STOCK) n'est pas couvert : pas d'index
+-- par combinaison, le planificateur choisit entre l'index du tri (lignes écartées) et celui du filtre (tri)
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, product_id);
+CREATE INDEX IF NOT EXISTS idx_products_stock_id ON products (stock_quantity, product_id);
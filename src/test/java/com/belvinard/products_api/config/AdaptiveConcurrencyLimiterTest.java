@@ -0,0 +1,167 @@
+package com.belvinard.products_api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CLIENTS = 100;
+    private static final Duration RUN_TIME = Duration.ofSeconds(2);
+
+    @Test
+    void limitShrinksOnSlowRequestsAndGrowsBackOnFastOnes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                "test", 20, 2, 40, Duration.ofMillis(100), 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(Duration.ofMillis(500).toNanos(), false);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(Duration.ofMillis(5).toNanos(), true);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        // Requête rapide avec la limite au moins à moitié utilisée : +1
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        limiter.release(Duration.ofMillis(5).toNanos(), false);
+        assertThat(limiter.limit()).isEqualTo(6);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsOnceTheLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                "test", 2, 2, 2, Duration.ofMillis(100), 0.9);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(0, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    // Mesure des latences réelles : exécuté seulement avec -Pperformance
+    @Test
+    @Tag("performance")
+    void p99OfAdmittedRequestsStaysBoundedWhenTheRepositoryIsSaturated() throws InterruptedException {
+        Duration latencyThreshold = Duration.ofMillis(30);
+
+        Run unlimited = run(CLIENTS, null);
+        Run limited = run(CLIENTS, new AdaptiveConcurrencyLimiter("read", 20, 2, 200, latencyThreshold, 0.9));
+        Run limitedFourTimesTheLoad = run(CLIENTS * 4,
+                new AdaptiveConcurrencyLimiter("read", 20, 2, 200, latencyThreshold, 0.9));
+
+        // Sans limite, 100 clients font la queue devant 10 connexions. Avec la limite, l'excédent
+        // est refusé et les requêtes admises attendent moins, même sous quatre fois la charge.
+        // Seules des bornes relatives sont vérifiées : les bornes absolues dépendent de la machine.
+        assertThat(limited.rejected()).isPositive();
+        assertThat(limited.p99Millis()).isLessThan(unlimited.p99Millis() * 3 / 4);
+        assertThat(limitedFourTimesTheLoad.rejected()).isPositive();
+        assertThat(limitedFourTimesTheLoad.p99Millis()).isLessThan(unlimited.p99Millis());
+    }
+
+    @Test
+    void filterRejectsWithServiceUnavailableAndRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter("read", 1, 1, 1, Duration.ofSeconds(1), 0.9);
+        AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter("write", 1, 1, 1, Duration.ofSeconds(1), 0.9);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(reads, writes,
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+        assertThat(reads.tryAcquire()).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), rejected, new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("SERVICE_UNAVAILABLE");
+
+        // Les écritures ont leur propre limite, les flux longs ne sont pas limités
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/products/1"), write, new MockFilterChain());
+        assertThat(write.getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse export = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/export"), export, new MockFilterChain());
+        assertThat(export.getStatus()).isEqualTo(200);
+    }
+
+    // Charge constante de `clients` clients ; limiter == null : toutes les requêtes sont admises
+    private static Run run(int clients, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        SlowRepository repository = new SlowRepository(10, Duration.ofMillis(10));
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            Thread.ofPlatform().start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        if (limiter != null && !limiter.tryAcquire()) {
+                            rejected.incrementAndGet();
+                            Thread.sleep(5);
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        repository.query();
+                        long latency = System.nanoTime() - start;
+                        if (limiter != null) {
+                            limiter.release(latency, false);
+                        }
+                        latencies.add(latency);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(RUN_TIME.toSeconds() + 30, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new Run(TimeUnit.NANOSECONDS.toMillis(p99), rejected.get());
+    }
+
+    private record Run(long p99Millis, long rejected) {
+    }
+
+    // Pool de connexions de taille fixe devant une base qui met serviceTime à répondre
+    private static final class SlowRepository {
+        private final Semaphore connections;
+        private final Duration serviceTime;
+
+        SlowRepository(int poolSize, Duration serviceTime) {
+            this.connections = new Semaphore(poolSize, true);
+            this.serviceTime = serviceTime;
+        }
+
+        void query() throws InterruptedException {
+            connections.acquire();
+            try {
+                Thread.sleep(serviceTime);
+            } finally {
+                connections.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import com.belvinard.products_api.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DatabaseConcurrencyGateTest {
+
+    // Aucun permis disponible : tout appel qui passe par la porte est refusé
+    private final DatabaseConcurrencyGate databaseGate =
+            new DatabaseConcurrencyGate(0, Duration.ofMillis(10), new SimpleMeterRegistry());
+    private final ProductService target = mock(ProductService.class);
+    private final ProductService productService = gated(target);
+
+    @Test
+    void shortCallsGoThroughTheGate() {
+        assertThatThrownBy(() -> productService.getProductById(1L))
+                .isInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void exportAndImportDoNotHoldAPermit() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayInputStream csv = new ByteArrayInputStream(new byte[0]);
+
+        productService.exportProducts(output);
+        productService.importProducts(csv, output);
+
+        verify(target).exportProducts(output);
+        verify(target).importProducts(csv, output);
+    }
+
+    private ProductService gated(ProductService service) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.addAspect(databaseGate);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,198 @@
+package com.belvinard.products_api.config;
+
+import com.belvinard.products_api.controller.ProductController;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.service.ProductService;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.ProductNameIndex;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductProtobufHttpMessageConverterTest {
+
+    private static final Pattern FIELD = Pattern.compile("^(repeated\\s+)?(\\w+)\\s+(\\w+)\\s*=\\s*(\\d+);");
+    private static final Map<String, FieldDescriptorProto.Type> SCALARS = Map.of(
+            "int64", FieldDescriptorProto.Type.TYPE_INT64,
+            "sint64", FieldDescriptorProto.Type.TYPE_SINT64,
+            "int32", FieldDescriptorProto.Type.TYPE_INT32,
+            "string", FieldDescriptorProto.Type.TYPE_STRING);
+
+    private static FileDescriptor schema;
+
+    private final ProductProtobufHttpMessageConverter converter = new ProductProtobufHttpMessageConverter();
+
+    // Descripteurs construits depuis src/main/proto/products.proto : le test suit le schéma publié
+    @BeforeAll
+    static void loadSchema() throws Exception {
+        FileDescriptorProto.Builder file = FileDescriptorProto.newBuilder()
+                .setName("products.proto").setPackage("products").setSyntax("proto3");
+        DescriptorProto.Builder message = null;
+        for (String line : Files.readAllLines(Path.of("src/main/proto/products.proto"))) {
+            line = line.replaceFirst("//.*", "").trim();
+            Matcher field = FIELD.matcher(line);
+            if (line.startsWith("message ")) {
+                message = DescriptorProto.newBuilder().setName(line.split("\\s+")[1]);
+            } else if (line.equals("}") && message != null) {
+                file.addMessageType(message);
+                message = null;
+            } else if (message != null && field.matches()) {
+                FieldDescriptorProto.Builder descriptor = FieldDescriptorProto.newBuilder()
+                        .setName(field.group(3))
+                        .setNumber(Integer.parseInt(field.group(4)))
+                        .setLabel(field.group(1) != null
+                                ? FieldDescriptorProto.Label.LABEL_REPEATED
+                                : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+                FieldDescriptorProto.Type scalar = SCALARS.get(field.group(2));
+                if (scalar != null) {
+                    descriptor.setType(scalar);
+                } else {
+                    descriptor.setType(FieldDescriptorProto.Type.TYPE_MESSAGE).setTypeName(".products." + field.group(2));
+                }
+                message.addField(descriptor);
+            }
+        }
+        schema = FileDescriptor.buildFrom(file.build(), new FileDescriptor[0]);
+    }
+
+    @Test
+    void productResponseDecodesWithTheSchema() throws Exception {
+        ProductResponse response = new ProductResponse(
+                List.of(product(1L, "Keyboard", new BigDecimal("49.90"), 3, 7L),
+                        product(2L, "Mouse", new BigDecimal("-0.5"), 40, null)),
+                List.of("⚠️ Stock is low for product: Keyboard"), "abc");
+
+        DynamicMessage message = decode("ProductResponse", response, ProductResponse.class);
+
+        List<?> content = (List<?>) field(message, "content");
+        assertThat(content).hasSize(2);
+        DynamicMessage keyboard = (DynamicMessage) content.get(0);
+        assertThat(field(keyboard, "id")).isEqualTo(1L);
+        assertThat(field(keyboard, "name")).isEqualTo("Keyboard");
+        assertThat(price(keyboard)).isEqualByComparingTo("49.90");
+        assertThat(field(keyboard, "stock_quantity")).isEqualTo(3);
+        assertThat(field(keyboard, "version")).isEqualTo(7L);
+        assertThat(price((DynamicMessage) content.get(1))).isEqualByComparingTo("-0.5");
+        assertThat(field(message, "alerts")).isEqualTo(List.of("⚠️ Stock is low for product: Keyboard"));
+        assertThat(field(message, "next_cursor")).isEqualTo("abc");
+    }
+
+    @Test
+    void pricesBeyond64BitsUseTheDecimalField() throws Exception {
+        BigDecimal price = new BigDecimal(BigInteger.TWO.pow(70), 2);
+
+        DynamicMessage message = decode("Product", product(1L, "Server", price, 1, 1L), ProductDTO.class);
+
+        assertThat(field(message, "price_decimal")).isEqualTo(price.toPlainString());
+        assertThat(message.hasField(descriptor("Product").findFieldByName("price_units"))).isFalse();
+    }
+
+    @Test
+    void productListDecodesWithTheSchema() throws Exception {
+        List<ProductDTO> products = List.of(product(1L, "Keyboard", new BigDecimal("49.90"), 3, 7L),
+                product(4L, "Cable", new BigDecimal("9.99"), 0, 2L));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(products, new ParameterizedTypeReference<List<ProductDTO>>() { }.getType(),
+                ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+
+        DynamicMessage message = DynamicMessage.parseFrom(descriptor("ProductList"), output.getBodyAsBytes());
+
+        assertThat((List<?>) field(message, "products"))
+                .extracting(product -> field((DynamicMessage) product, "id"))
+                .containsExactly(1L, 4L);
+    }
+
+    @Test
+    void onlyProductListsAreWritten() {
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<ProductDTO>>() { }.getType(), List.class,
+                ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF)).isTrue();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() { }.getType(), List.class,
+                ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF)).isFalse();
+        assertThat(converter.canWrite(List.class, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF)).isFalse();
+    }
+
+    @Test
+    void lowStockIsNegotiatedAsProtobuf() throws Exception {
+        ProductService productService = mock(ProductService.class);
+        when(productService.getLowStockProducts(anySet()))
+                .thenReturn(List.of(product(1L, "Keyboard", new BigDecimal("49.90"), 3, 7L)));
+        ProductNameIndex productNameIndex = mock(ProductNameIndex.class);
+        when(productNameIndex.suggest(anyString(), anyInt())).thenReturn(List.of("Keyboard"));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new ProductController(productService, new CatalogVersion(), productNameIndex,
+                        null, null))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(), converter)
+                .build();
+
+        MvcResult result = mockMvc.perform(get("/api/products/low-stock")
+                        .header(HttpHeaders.ACCEPT, "application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-x-protobuf\"")))
+                .andReturn();
+        DynamicMessage message = DynamicMessage.parseFrom(descriptor("ProductList"),
+                result.getResponse().getContentAsByteArray());
+        assertThat((List<?>) field(message, "products")).hasSize(1);
+
+        // Les suggestions (List<String>) n'ont pas de représentation protobuf
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "Key")
+                        .header(HttpHeaders.ACCEPT, "application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private <T> DynamicMessage decode(String messageName, T value, Class<T> type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+        return DynamicMessage.parseFrom(descriptor(messageName), output.getBodyAsBytes());
+    }
+
+    private static Descriptor descriptor(String messageName) {
+        return schema.findMessageTypeByName(messageName);
+    }
+
+    private static Object field(DynamicMessage message, String name) {
+        return message.getField(message.getDescriptorForType().findFieldByName(name));
+    }
+
+    private static BigDecimal price(DynamicMessage product) {
+        return BigDecimal.valueOf((Long) field(product, "price_units"), (Integer) field(product, "price_scale"));
+    }
+
+    private static ProductDTO product(Long id, String name, BigDecimal price, int stockQuantity, Long version) {
+        return new ProductDTO(id, name, price, stockQuantity, version);
+    }
+}
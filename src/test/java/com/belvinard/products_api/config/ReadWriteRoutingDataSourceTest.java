@@ -0,0 +1,125 @@
+package com.belvinard.products_api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        // Deux bases H2 indépendantes : chacune sait qui elle est
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Routed routed = routed(Duration.ZERO);
+
+        assertThat(routed.read()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        Routed routed = routed(Duration.ZERO);
+
+        assertThat(routed.write()).isEqualTo("primary");
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM writes", Integer.class)).isEqualTo(1);
+        assertThat(new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM writes", Integer.class)).isZero();
+    }
+
+    @Test
+    void readsStayOnThePrimaryWithinTheReadYourWritesWindow() {
+        Routed routed = routed(Duration.ofMinutes(1));
+
+        assertThat(routed.read()).isEqualTo("replica");
+        routed.write();
+        assertThat(routed.read()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsReturnToTheReplicaOnceTheWindowHasElapsed() throws InterruptedException {
+        Routed routed = routed(Duration.ofMillis(50));
+
+        routed.write();
+        assertThat(routed.read()).isEqualTo("primary");
+        Thread.sleep(100);
+        assertThat(routed.read()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinReadsToThePrimary() {
+        Routed routed = routed(Duration.ofMinutes(1));
+
+        routed.transactions.executeWithoutResult(status -> {
+            routed.jdbc.update("INSERT INTO writes VALUES (1)");
+            status.setRollbackOnly();
+        });
+
+        assertThat(routed.read()).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnThePrimaryAfterACatalogVersionChangeFromAnotherInstance() throws InterruptedException {
+        AtomicLong catalogVersion = new AtomicLong();
+        Routed routed = routed(Duration.ofMillis(200), catalogVersion);
+
+        assertThat(routed.read()).isEqualTo("replica");
+        catalogVersion.incrementAndGet();
+        assertThat(routed.read()).isEqualTo("primary");
+        Thread.sleep(300);
+        assertThat(routed.read()).isEqualTo("replica");
+    }
+
+    private Routed routed(Duration readYourWritesWindow) {
+        return routed(readYourWritesWindow, new AtomicLong());
+    }
+
+    private Routed routed(Duration readYourWritesWindow, AtomicLong catalogVersion) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow, catalogVersion::get));
+        return new Routed(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.execute("CREATE TABLE writes (id INT)");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private record Routed(JdbcTemplate jdbc, TransactionTemplate transactions) {
+
+        String read() {
+            TransactionTemplate readOnly = new TransactionTemplate(transactions.getTransactionManager());
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return transactions.execute(status -> {
+                jdbc.update("INSERT INTO writes VALUES (1)");
+                return jdbc.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.belvinard.products_api.controller;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.exceptions.APIException;
+import com.belvinard.products_api.exceptions.DuplicateResourceException;
+import com.belvinard.products_api.exceptions.InsufficientStockException;
+import com.belvinard.products_api.exceptions.ResourceNotFoundException;
+import com.belvinard.products_api.repository.ProductNameView;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.service.ProductService;
+import com.belvinard.products_api.service.index.ProductNameIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductControllerTest {
+
+    private ProductService productService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new ProductController(productService, null, null, null, null)).build();
+    }
+
+    @Test
+    void stockFailuresMapToTheirStatus() throws Exception {
+        when(productService.reserveStock(1L, 5))
+                .thenThrow(new InsufficientStockException("Not enough stock to reserve 5 unit(s) of product 1."));
+        when(productService.reserveStock(42L, 5))
+                .thenThrow(new ResourceNotFoundException("Product", "productId", 42L));
+        when(productService.releaseStock(1L, 5))
+                .thenThrow(new APIException("Releasing 5 unit(s) would exceed the maximum stock of product 1."));
+
+        mockMvc.perform(quantity(post("/api/products/1/stock/reserve"), 5))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("CONFLICT"));
+        mockMvc.perform(quantity(post("/api/products/42/stock/reserve"), 5))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(quantity(post("/api/products/1/stock/release"), 5))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Releasing 5 unit(s) would exceed the maximum stock of product 1."));
+    }
+
+    @Test
+    void updateFailuresMapToTheirStatus() throws Exception {
+        when(productService.updateProduct(eq(1L), any(ProductDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+        when(productService.updateProduct(eq(2L), any(ProductDTO.class)))
+                .thenThrow(new DuplicateResourceException("A product with the name 'Keyboard' already exists."));
+        when(productService.updateProduct(eq(42L), any(ProductDTO.class)))
+                .thenThrow(new ResourceNotFoundException("Product", "productId", 42L));
+
+        mockMvc.perform(update(1L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("CONFLICT"));
+        mockMvc.perform(update(2L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("A product with the name 'Keyboard' already exists."));
+        mockMvc.perform(update(42L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void suggestReturnsIndexedNamesByPrefixUpToTheLimit() throws Exception {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findAllNames()).thenReturn(List.of(
+                name(1L, "Smartwatch"), name(2L, "Keyboard"), name(3L, "smartphone"), name(4L, "Smart TV")));
+        ProductNameIndex productNameIndex = new ProductNameIndex(productRepository);
+        productNameIndex.rebuild();
+        MockMvc suggestMockMvc = MockMvcBuilders.standaloneSetup(
+                validated(new ProductController(productService, null, productNameIndex, null, null))).build();
+
+        suggestMockMvc.perform(get("/api/products/suggest").param("prefix", "SMA"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"Smart TV\", \"smartphone\", \"Smartwatch\"]", true));
+        suggestMockMvc.perform(get("/api/products/suggest").param("prefix", "sma").param("limit", "2"))
+                .andExpect(content().json("[\"Smart TV\", \"smartphone\"]", true));
+        suggestMockMvc.perform(get("/api/products/suggest").param("prefix", "sma").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void productsAreIdentifiedByIdInResponses() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(new ProductDTO(1L, "Keyboard", new BigDecimal("49.90"), 12, 3L));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.productId").doesNotExist())
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    // Proxy de validation des paramètres, comme celui créé par Spring pour un contrôleur @Validated
+    private static Object validated(ProductController controller) {
+        ProxyFactory proxyFactory = new ProxyFactory(controller);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor(Validation.buildDefaultValidatorFactory().getValidator()));
+        return proxyFactory.getProxy();
+    }
+
+    private static ProductNameView name(Long id, String name) {
+        return new ProductNameView() {
+            @Override
+            public Long getProductId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static MockHttpServletRequestBuilder update(long productId) {
+        return put("/api/products/" + productId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Keyboard\",\"price\":49.90,\"stockQuantity\":12,\"version\":7}");
+    }
+
+    private static MockHttpServletRequestBuilder quantity(MockHttpServletRequestBuilder builder, int quantity) {
+        return builder.contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":" + quantity + "}");
+    }
+}
@@ -0,0 +1,81 @@
+package com.belvinard.products_api.service.alert;
+
+import com.belvinard.products_api.entity.StockAlertEvent;
+import com.belvinard.products_api.repository.StockAlertOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockAlertDispatcherTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final StockAlertOutboxRepository outboxRepository = mock(StockAlertOutboxRepository.class);
+    private final StockAlertSink log = mock(StockAlertSink.class);
+    private final StockAlertSink webhook = mock(StockAlertSink.class);
+    private final StockAlertDispatcher dispatcher = new StockAlertDispatcher(outboxRepository, List.of(webhook, log),
+            BATCH_SIZE, MAX_ATTEMPTS, Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ofMinutes(10));
+
+    @Test
+    void deliveredBatchesAreDeletedUntilTheOutboxIsDrained() {
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, MAX_ATTEMPTS, 60))
+                .thenReturn(List.of(event(1L, 1), event(2L, 1)), List.of(event(3L, 1)));
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxRepository, times(2)).claimNextBatch(anyInt(), anyInt(), anyLong());
+        verify(outboxRepository, never()).scheduleRetry(anyList(), anyLong(), anyLong());
+    }
+
+    @Test
+    void aFailingSinkDoesNotStopTheOthersAndTheBatchIsRescheduled() {
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, MAX_ATTEMPTS, 60))
+                .thenReturn(List.of(event(1L, 1), event(2L, 2)));
+        doThrow(new IllegalStateException("webhook down")).when(webhook).deliver(anyList());
+
+        dispatcher.dispatch();
+
+        verify(log).deliver(anyList());
+        verify(outboxRepository).scheduleRetry(List.of(1L, 2L), 5, 600);
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+        // Pas d'enchaînement sur le lot suivant tant que la livraison échoue
+        verify(outboxRepository, times(1)).claimNextBatch(anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    void databaseErrorsAreLoggedWithoutPropagating() {
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, MAX_ATTEMPTS, 60))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        dispatcher.dispatch();
+
+        verify(webhook, never()).deliver(anyList());
+    }
+
+    private static StockAlertEvent event(long id, int attempts) {
+        StockAlertEvent event = new StockAlertEvent();
+        ReflectionTestUtils.setField(event, "id", id);
+        ReflectionTestUtils.setField(event, "productId", id);
+        ReflectionTestUtils.setField(event, "productName", "Product " + id);
+        ReflectionTestUtils.setField(event, "stockQuantity", 1);
+        ReflectionTestUtils.setField(event, "createdAt", Instant.now());
+        ReflectionTestUtils.setField(event, "attempts", attempts);
+        return event;
+    }
+}
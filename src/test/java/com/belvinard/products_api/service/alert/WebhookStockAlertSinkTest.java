@@ -0,0 +1,31 @@
+package com.belvinard.products_api.service.alert;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookStockAlertSinkTest {
+
+    @Test
+    void aWebhookThatNeverAnswersFailsAfterTheTimeout() throws Exception {
+        // La connexion aboutit (file d'attente du socket) mais personne ne répond
+        try (ServerSocket server = new ServerSocket(0)) {
+            WebhookStockAlertSink sink = new WebhookStockAlertSink(RestClient.builder(),
+                    "http://localhost:" + server.getLocalPort() + "/stock-alerts", Duration.ofMillis(200));
+            List<StockAlert> alerts = List.of(new StockAlert(1L, "Keyboard", 3, Instant.now()));
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> sink.deliver(alerts)).isInstanceOf(ResourceAccessException.class);
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        }
+    }
+}
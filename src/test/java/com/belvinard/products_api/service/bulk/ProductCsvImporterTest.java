@@ -0,0 +1,81 @@
+package com.belvinard.products_api.service.bulk;
+
+import com.belvinard.products_api.exceptions.APIException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCsvImporterTest {
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final ProductCsvImporter importer = new ProductCsvImporter(null, validatorFactory.getValidator());
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void columnsAreFoundInAnyOrderAndCase() {
+        ProductCsvImporter.Columns columns = ProductCsvImporter.Columns.of("\uFEFFStockQuantity, PRICE ,name,sku");
+
+        assertThat(columns.count()).isEqualTo(4);
+        List<String> fields = List.of("7", "19.90", "Mouse", "M-1");
+        assertThat(columns.name(fields)).isEqualTo("Mouse");
+        assertThat(columns.price(fields)).isEqualTo("19.90");
+        assertThat(columns.stockQuantity(fields)).isEqualTo("7");
+        assertThat(columns.name(List.of("7"))).isNull();
+    }
+
+    @Test
+    void emptyFileIsRejected() {
+        assertThatThrownBy(() -> ProductCsvImporter.Columns.of(null))
+                .isInstanceOf(APIException.class)
+                .hasMessage("The CSV file is empty.");
+    }
+
+    @Test
+    void headerWithoutARequiredColumnIsRejected() {
+        assertThatThrownBy(() -> ProductCsvImporter.Columns.of("name,price"))
+                .isInstanceOf(APIException.class)
+                .hasMessage("The CSV header must contain the columns name, price and stockQuantity.");
+        assertThatThrownBy(() -> ProductCsvImporter.Columns.of(""))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> ProductCsvImporter.Columns.of("name,price,stock_quantity"))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void validRowHasNoError() {
+        assertThat(importer.validate("Smartphone", " 499.99 ", "10")).isNull();
+    }
+
+    @Test
+    void unparsableNumbersAreRejected() {
+        assertThat(importer.validate("Smartphone", "4,99", "10")).isEqualTo("price: must be a decimal number");
+        assertThat(importer.validate("Smartphone", "4.99", "ten")).isEqualTo("stockQuantity: must be an integer");
+        assertThat(importer.validate("Smartphone", "4.99", "2147483648")).isEqualTo("stockQuantity: must be an integer");
+    }
+
+    @Test
+    void constraintViolationsAreReportedTogetherInPropertyOrder() {
+        assertThat(importer.validate("ab", "-1", "-5")).isEqualTo(
+                "name: Product's name must be 3-30 characters; "
+                        + "price: Price must be positive; "
+                        + "stockQuantity: Stock quantity cannot be negative");
+    }
+
+    @Test
+    void missingValuesAreReportedAsRequired() {
+        assertThat(importer.validate(null, "", " ")).isEqualTo(
+                "name: Product name cannot be blank; "
+                        + "price: Price is required; "
+                        + "stockQuantity: Stock quantity is required");
+    }
+}
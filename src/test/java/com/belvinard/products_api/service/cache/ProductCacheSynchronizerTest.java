@@ -0,0 +1,77 @@
+package com.belvinard.products_api.service.cache;
+
+import com.belvinard.products_api.config.CacheConfig;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheSynchronizerTest {
+
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCTS_CACHE);
+    private final ProductCacheSynchronizer synchronizer = new ProductCacheSynchronizer(cacheManager);
+    private final Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void updatesAppliedOutOfOrderKeepTheNewestVersion() {
+        synchronizer.onProductChanged(ProductChangedEvent.updated(product(3L, 7)));
+        synchronizer.onProductChanged(ProductChangedEvent.stockChanged(product(2L, 9)));
+
+        assertThat(cached().getVersion()).isEqualTo(3L);
+        assertThat(cached().getStockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void updateWithoutVersionEvictsTheEntry() {
+        synchronizer.onProductChanged(ProductChangedEvent.updated(product(3L, 7)));
+        synchronizer.onProductChanged(ProductChangedEvent.updated(product(null, 5)));
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void aReadStartedBeforeTheCommitDoesNotOverwriteTheNewerEntry() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Lecture en mode sync (getProductById) qui a lu la ligne avant le commit de la version 3
+        Future<ProductDTO> read = executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return product(2L, 9);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<?> listener = executor.submit(
+                () -> synchronizer.onProductChanged(ProductChangedEvent.updated(product(3L, 7))));
+        release.countDown();
+        read.get(5, TimeUnit.SECONDS);
+        listener.get(5, TimeUnit.SECONDS);
+
+        assertThat(cached().getVersion()).isEqualTo(3L);
+    }
+
+    private ProductDTO cached() {
+        return cache.get(1L, ProductDTO.class);
+    }
+
+    private static ProductDTO product(Long version, int stockQuantity) {
+        return new ProductDTO(1L, "Keyboard", new BigDecimal("49.90"), stockQuantity, version);
+    }
+}
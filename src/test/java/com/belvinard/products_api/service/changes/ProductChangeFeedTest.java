@@ -0,0 +1,157 @@
+package com.belvinard.products_api.service.changes;
+
+import com.belvinard.products_api.controller.ProductController;
+import com.belvinard.products_api.dto.ProductChange;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.exceptions.ServiceBusyException;
+import com.belvinard.products_api.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductChangeFeedTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService senders = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        senders.shutdownNow();
+    }
+
+    @Test
+    void reconnectingWithLastEventIdReplaysOnlyTheMissedEvents() throws Exception {
+        ProductChangeFeed feed = feed(16, 256, 10);
+        MockMvc mockMvc = mockMvc(feed);
+        publish(feed, 3);
+
+        String connected = awaitEvents(subscribe(mockMvc, null), "event:connected");
+        String epoch = epoch(connected);
+
+        String replay = awaitEvents(subscribe(mockMvc, epoch + ":1"), "id:" + epoch + ":3");
+
+        assertThat(replay).doesNotContain("id:" + epoch + ":1\n", "event:reset")
+                .contains("id:" + epoch + ":2\n", "event:stock", "\"id\":2");
+    }
+
+    @Test
+    void idsOutOfTheBufferOrFromAnotherEpochGetAReset() throws Exception {
+        ProductChangeFeed feed = feed(4, 256, 10);
+        MockMvc mockMvc = mockMvc(feed);
+        publish(feed, 6);
+        String connected = awaitEvents(subscribe(mockMvc, null), "event:connected");
+        String epoch = epoch(connected);
+
+        // Le tampon ne garde que les séquences 3 à 6 : la reprise après 1 n'est plus possible, après 2 si
+        assertThat(awaitEvents(subscribe(mockMvc, epoch + ":1"), "event:reset")).doesNotContain("event:stock");
+        assertThat(awaitEvents(subscribe(mockMvc, epoch + ":2"), "id:" + epoch + ":6")).doesNotContain("event:reset");
+        assertThat(awaitEvents(subscribe(mockMvc, "other.0:2"), "event:reset")).doesNotContain("event:stock");
+        assertThat(awaitEvents(subscribe(mockMvc, epoch + ":7"), "event:reset")).doesNotContain("event:stock");
+    }
+
+    @Test
+    void aSubscriberThatCannotKeepUpIsDisconnected() throws Exception {
+        // Le seul thread d'envoi est occupé : rien ne sort des files des abonnés
+        CountDownLatch release = new CountDownLatch(1);
+        senders.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ProductChangeFeed feed = feed(16, 2, 10);
+        feed.subscribe(null);
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+
+        // File de 2 plus l'événement connected : la troisième publication ne trouve plus de place
+        publish(feed, 2);
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        publish(feed, 1);
+
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("products.changes.dropped").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void subscribersBeyondTheCapAreTurnedAway() throws Exception {
+        ProductChangeFeed feed = feed(16, 256, 2);
+        MockMvc mockMvc = mockMvc(feed);
+        subscribe(mockMvc, null);
+        feed.subscribe(null);
+
+        assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(ServiceBusyException.class);
+        mockMvc.perform(get("/api/products/changes"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        assertThat(feed.subscriberCount()).isEqualTo(2);
+    }
+
+    private ProductChangeFeed feed(int bufferSize, int subscriberQueueSize, int maxSubscribers) {
+        return new ProductChangeFeed(new ObjectMapper(), bufferSize, subscriberQueueSize, maxSubscribers,
+                Duration.ofMinutes(1), meterRegistry, senders);
+    }
+
+    private static MockMvc mockMvc(ProductChangeFeed feed) {
+        return MockMvcBuilders.standaloneSetup(
+                new ProductController(mock(ProductService.class), null, null, null, feed)).build();
+    }
+
+    // Produits 1 à count, à la suite des publications précédentes
+    private static void publish(ProductChangeFeed feed, int count) {
+        for (long id = 1; id <= count; id++) {
+            ProductDTO product = new ProductDTO(id, "Product " + id, new BigDecimal("9.99"), (int) id);
+            feed.publish(ProductChange.of(ProductChangedEvent.stockChanged(product)));
+        }
+    }
+
+    private static MvcResult subscribe(MockMvc mockMvc, String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/products/changes");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // "id:<époque>:<séquence>" du premier événement du flux
+    private static String epoch(String content) {
+        int start = content.indexOf("id:") + 3;
+        return content.substring(start, content.indexOf(':', start));
+    }
+
+    // Les envois sont asynchrones : attend que le flux contienne expected
+    private static String awaitEvents(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -0,0 +1,60 @@
+package com.belvinard.products_api.service.changes;
+
+import com.belvinard.products_api.config.CacheConfig;
+import com.belvinard.products_api.dto.ProductChange;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.event.ProductsImportedEvent;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.belvinard.products_api.service.index.ProductNameIndex;
+import com.belvinard.products_api.service.stats.InventoryStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ProductChangeListenerTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE);
+    private final LowStockIndex lowStockIndex = mock(LowStockIndex.class);
+    private final ProductNameIndex productNameIndex = mock(ProductNameIndex.class);
+    private final InventoryStats inventoryStats = mock(InventoryStats.class);
+    private final ProductChangeListener listener = new ProductChangeListener(null, null, null, catalogVersion,
+            cacheManager, lowStockIndex, productNameIndex, inventoryStats, null,
+            Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+    @Test
+    void remoteWritesAreAppliedToTheInMemoryStructures() {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        cache.put(1L, "cached");
+        long version = catalogVersion.current();
+        ProductDTO product = new ProductDTO(1L, "Keyboard", new BigDecimal("49.90"), 3);
+
+        listener.invalidate(new ProductChange(ProductChange.Type.STOCK, product, null, null));
+
+        ProductChangedEvent expected = ProductChangedEvent.stockChanged(product);
+        verify(lowStockIndex).onProductChanged(expected);
+        verify(productNameIndex).onProductChanged(expected);
+        verify(inventoryStats).onProductChanged(expected);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(catalogVersion.current()).isGreaterThan(version);
+    }
+
+    @Test
+    void remoteImportsRebuildTheInMemoryStructures() {
+        listener.invalidate(new ProductChange(ProductChange.Type.IMPORTED, null, 120L, 30L));
+
+        ProductsImportedEvent expected = new ProductsImportedEvent(120, 30);
+        verify(lowStockIndex).onProductsImported(expected);
+        verify(productNameIndex).onProductsImported(expected);
+        verify(inventoryStats).onProductsImported(expected);
+    }
+}
@@ -0,0 +1,128 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.dto.ProductBatchItemResult;
+import com.belvinard.products_api.dto.ProductBatchItemResult.Status;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.response.ProductBatchResponse;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceBatchTest {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Object> events = new ArrayList<>();
+    private ProductRepository productRepository;
+    private StockAlertOutbox stockAlertOutbox;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        stockAlertOutbox = mock(StockAlertOutbox.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogVersion catalogVersion = new CatalogVersion();
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), null, null,
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class),
+                events::add, new LowStockIndex(productRepository, catalogVersion, meterRegistry), stockAlertOutbox,
+                null, catalogVersion, meterRegistry, null);
+        when(productRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setProductId(ids.incrementAndGet()));
+            return products;
+        });
+        when(productRepository.saveAndFlush(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            product.setProductId(ids.incrementAndGet());
+            return product;
+        });
+    }
+
+    @Test
+    void aMixedBatchCreatesOnlyTheValidNewProducts() {
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("Monitor"));
+
+        ProductBatchResponse response = productService.createProducts(List.of(
+                product("Keyboard", 3),
+                product("", 10),
+                product("Keyboard", 8),
+                product("Monitor", 10),
+                product("Mouse", 40)));
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResult::getStatus).containsExactly(
+                Status.CREATED, Status.VALIDATION_ERROR, Status.DUPLICATE_NAME, Status.DUPLICATE_NAME, Status.CREATED);
+        assertThat(response.getResults()).extracting(ProductBatchItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.getResults().get(0).getAlert()).contains("Keyboard");
+        assertThat(response.getResults().get(1).getErrors()).containsKey("name");
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+
+        // Un seul SELECT pour les noms (sans le nom invalide), un seul INSERT groupé
+        verify(productRepository).findExistingNames(Set.of("Keyboard", "Monitor", "Mouse"));
+        verify(productRepository).saveAllAndFlush(argThat(products -> ((List<?>) products).size() == 2));
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void aBatchOfExistingNamesInsertsNothing() {
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("Keyboard", "Mouse"));
+
+        ProductBatchResponse response = productService.createProducts(List.of(
+                product("Keyboard", 3), product("Mouse", 40)));
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResult::getStatus)
+                .containsOnly(Status.DUPLICATE_NAME);
+        assertThat(response.getCreated()).isZero();
+        verify(productRepository, never()).saveAllAndFlush(anyList());
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void aNameCreatedConcurrentlyFallsBackToOneInsertPerProduct() {
+        // Le SELECT ne voit rien, mais "Mouse" est créé par une autre requête avant l'INSERT groupé
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+        when(productRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("products_name_key"));
+        when(productRepository.saveAndFlush(argThat(product -> product != null && "Mouse".equals(product.getName()))))
+                .thenThrow(new DataIntegrityViolationException("products_name_key"));
+
+        ProductBatchResponse response = productService.createProducts(List.of(
+                product("Keyboard", 3), product("Mouse", 40), product("Monitor", 10)));
+
+        assertThat(response.getResults()).extracting(ProductBatchItemResult::getStatus)
+                .containsExactly(Status.CREATED, Status.DUPLICATE_NAME, Status.CREATED);
+        assertThat(response.getResults().get(0).getProduct().getId()).isNotNull();
+        assertThat(events).hasSize(2);
+    }
+
+    private static ProductDTO product(String name, int stockQuantity) {
+        return new ProductDTO(null, name, new BigDecimal("19.90"), stockQuantity);
+    }
+}
@@ -0,0 +1,140 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductField;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.ProductSort;
+import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.belvinard.products_api.service.impl.ProductServiceFieldsTest$SqlCapture"
+})
+class ProductServiceFieldsTest {
+
+    private static final Set<ProductField> ID_AND_STOCK = EnumSet.of(ProductField.ID, ProductField.STOCK_QUANTITY);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), entityManager,
+                objectMapper, null, transactionManager, event -> { },
+                new LowStockIndex(productRepository, new CatalogVersion(), meterRegistry), null, null, new CatalogVersion(),
+                meterRegistry, null);
+
+        // Deux produits par prix : le curseur doit départager les ex aequo par id
+        for (int i = 1; i <= 6; i++) {
+            productRepository.save(new Product(null, "Product " + i, BigDecimal.valueOf((i + 1) / 2), i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapture.statements.clear();
+    }
+
+    @Test
+    void onlyTheRequestedColumnsAreSelected() throws Exception {
+        ProductResponse response = productService.getAllProducts(new ProductSearchCriteria(), null, 10, ID_AND_STOCK);
+
+        assertThat(selectedColumns()).containsExactlyInAnyOrder("product_id", "stock_quantity");
+        assertThat(response.getContent()).hasSize(6);
+        assertThat(objectMapper.writeValueAsString(response.getContent().get(0)))
+                .isEqualTo("{\"id\":" + response.getContent().get(0).getId() + ",\"stockQuantity\":1}");
+        assertPersistenceContextIsEmpty();
+    }
+
+    @Test
+    void pagesSortedByPriceWithoutReturningThePrice() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(null, null, null, null, ProductSort.PRICE_DESC);
+
+        ProductResponse firstPage = productService.getAllProducts(criteria, null, 3, ID_AND_STOCK);
+        // Le prix est lu pour le curseur, le nom et la version jamais
+        assertThat(selectedColumns()).containsExactlyInAnyOrder("product_id", "stock_quantity", "price");
+        ProductResponse secondPage = productService.getAllProducts(criteria, firstPage.getNextCursor(), 3, ID_AND_STOCK);
+
+        assertThat(stockQuantities(firstPage)).containsExactly(6, 5, 4);
+        assertThat(stockQuantities(secondPage)).containsExactly(3, 2, 1);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(firstPage.getContent()).allSatisfy(product -> {
+            assertThat(product.getPrice()).isNull();
+            assertThat(product.getName()).isNull();
+        });
+        assertPersistenceContextIsEmpty();
+    }
+
+    @Test
+    void fullProductsKeepTheirNullFields() throws Exception {
+        ProductDTO product = new ProductDTO(1L, "Keyboard", new BigDecimal("49.90"), 3);
+
+        assertThat(objectMapper.writeValueAsString(product)).contains("\"version\":null");
+    }
+
+    private void assertPersistenceContextIsEmpty() {
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    // Colonnes de la dernière requête de lecture, sans alias de table
+    private static List<String> selectedColumns() {
+        String sql = SqlCapture.statements.stream()
+                .filter(statement -> statement.startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        String columns = sql.substring("select".length(), sql.indexOf(" from "));
+        return List.of(columns.split(",")).stream()
+                .map(column -> column.trim().substring(column.trim().indexOf('.') + 1))
+                .toList();
+    }
+
+    private static List<Integer> stockQuantities(ProductResponse response) {
+        return response.getContent().stream().map(ProductDTO::getStockQuantity).toList();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.ProductSort;
+import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class ProductServicePaginationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), entityManager,
+                new ObjectMapper(), null, transactionManager, event -> { },
+                new LowStockIndex(productRepository, new CatalogVersion(), meterRegistry), null, null, new CatalogVersion(),
+                meterRegistry, null);
+
+        // Prix de 1 à 10 : les produits 5 à 10 passent le filtre minPrice=5
+        for (int i = 1; i <= 10; i++) {
+            productRepository.save(new Product(null, "Product " + i, BigDecimal.valueOf(i), 10 + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filteredListSortedByIdPagesWithTheCursorItIssues() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(new BigDecimal("5"), null, null, null, ProductSort.ID);
+
+        ProductResponse firstPage = productService.getAllProducts(criteria, null, 4);
+        assertThat(names(firstPage)).containsExactly("Product 5", "Product 6", "Product 7", "Product 8");
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        ProductResponse secondPage = productService.getAllProducts(criteria, firstPage.getNextCursor(), 4);
+        assertThat(names(secondPage)).containsExactly("Product 9", "Product 10");
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void unfilteredListSortedByIdKeepsTheSameCursorFormat() {
+        ProductResponse firstPage = productService.getAllProducts(new ProductSearchCriteria(), null, 6);
+        ProductSearchCriteria filtered = new ProductSearchCriteria(BigDecimal.ONE, null, null, null, ProductSort.ID);
+
+        // Un curseur émis sans filtre reste accepté une fois un filtre ajouté
+        ProductResponse secondPage = productService.getAllProducts(filtered, firstPage.getNextCursor(), 6);
+        assertThat(names(secondPage)).containsExactly("Product 7", "Product 8", "Product 9", "Product 10");
+    }
+
+    private static List<String> names(ProductResponse response) {
+        List<String> names = new ArrayList<>();
+        for (ProductDTO product : response.getContent()) {
+            names.add(product.getName());
+        }
+        return names;
+    }
+}
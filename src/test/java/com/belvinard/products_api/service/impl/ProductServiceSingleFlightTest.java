@@ -0,0 +1,246 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.config.DatabaseConcurrencyGate;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.dto.ProductSearchCriteria;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.response.ProductResponse;
+import com.belvinard.products_api.service.ProductService;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceSingleFlightTest {
+
+    private static final int CALLERS = 50;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final List<Product> catalog = List.of(
+            new Product(1L, "Keyboard", new BigDecimal("49.90"), 3),
+            new Product(2L, "Mouse", new BigDecimal("19.90"), 40));
+
+    private ProductRepository productRepository;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogVersion catalogVersion;
+    private ProductServiceImpl productService;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        catalogVersion = new CatalogVersion();
+        LowStockIndex lowStockIndex = new LowStockIndex(productRepository, catalogVersion, meterRegistry);
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), null, null, null,
+                transactionManager, event -> { }, lowStockIndex, null, null, catalogVersion, meterRegistry,
+                null);
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalListCallsShareOneQueryAndOneResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return catalog;
+                });
+
+        List<Future<ProductResponse>> results = submitAll(
+                () -> productService.getAllProducts(new ProductSearchCriteria(), null, 20));
+        awaitJoined("products.list", CALLERS - 1);
+        release.countDown();
+
+        ProductResponse first = results.get(0).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        for (Future<ProductResponse> result : results) {
+            assertThat(result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isSameAs(first);
+        }
+        assertThat(first.getContent()).extracting(ProductDTO::getId).containsExactly(1L, 2L);
+        assertThat(first.getAlerts()).hasSize(1);
+        // Réponse partagée entre tous les appelants : ses listes ne peuvent pas être modifiées
+        assertThatThrownBy(() -> first.getContent().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> first.getAlerts().add("alert")).isInstanceOf(UnsupportedOperationException.class);
+
+        verify(productRepository, times(1)).findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class));
+        // Une seule transaction, en lecture seule : les appelants en attente ne prennent pas de connexion
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void callersWaitingForTheSharedResultDoNotHoldADatabaseGatePermit() throws Exception {
+        DatabaseConcurrencyGate databaseGate = new DatabaseConcurrencyGate(2, Duration.ofMillis(100), meterRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ProductServiceImpl(productRepository,
+                new ProductMapper(), null, null, null, transactionManager, event -> { },
+                new LowStockIndex(productRepository, catalogVersion, meterRegistry), null, null, catalogVersion, meterRegistry,
+                databaseGate));
+        proxyFactory.addAspect(databaseGate);
+        ProductService gatedService = proxyFactory.getProxy();
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return catalog;
+                });
+
+        List<Future<ProductResponse>> results = submitAll(
+                () -> gatedService.getAllProducts(new ProductSearchCriteria(), null, 20));
+        awaitJoined("products.list", CALLERS - 1);
+
+        // Seul le meneur tient un permis : une écriture passerait encore la porte
+        assertThat(databaseGate.availablePermits()).isEqualTo(1);
+        release.countDown();
+        for (Future<ProductResponse> result : results) {
+            assertThat(result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getContent()).hasSize(2);
+        }
+        assertThat(databaseGate.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void failureReachesEveryWaitingCallerAndIsNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() == 1) {
+                        release.await();
+                        throw new DataAccessResourceFailureException("connection lost");
+                    }
+                    return catalog;
+                });
+
+        List<Future<ProductResponse>> results = submitAll(
+                () -> productService.getAllProducts(new ProductSearchCriteria(), null, 20));
+        awaitJoined("products.list", CALLERS - 1);
+        release.countDown();
+
+        for (Future<ProductResponse> result : results) {
+            assertThatThrownBy(() -> result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(DataAccessResourceFailureException.class)
+                    .hasMessage("connection lost");
+        }
+
+        // L'échec n'est pas mémorisé : l'appel suivant relance la requête
+        assertThat(productService.getAllProducts(new ProductSearchCriteria(), null, 20).getContent()).hasSize(2);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void callArrivingAfterAWriteDoesNotJoinTheEarlierRead() throws Exception {
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() == 1) {
+                        firstQueryStarted.countDown();
+                        release.await();
+                        return catalog.subList(0, 1);
+                    }
+                    return catalog;
+                });
+
+        Future<ProductResponse> beforeWrite = callers.submit(
+                () -> productService.getAllProducts(new ProductSearchCriteria(), null, 20));
+        assertThat(firstQueryStarted.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        // Ce que fait CatalogVersion après le commit d'une écriture
+        catalogVersion.increment();
+        ProductResponse afterWrite = productService.getAllProducts(new ProductSearchCriteria(), null, 20);
+        release.countDown();
+
+        assertThat(afterWrite.getContent()).hasSize(2);
+        assertThat(beforeWrite.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getContent()).hasSize(1);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void concurrentLowStockCallsShareOneQuery() throws Exception {
+        when(productRepository.findLowStockProductIds()).thenReturn(List.of(1L));
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), null, null, null,
+                transactionManager, event -> { }, rebuiltLowStockIndex(), null, null, catalogVersion,
+                meterRegistry, null);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            release.await();
+            return catalog.subList(0, 1);
+        });
+
+        List<Future<List<ProductDTO>>> results = submitAll(productService::getLowStockProducts);
+        awaitJoined("products.low_stock", CALLERS - 1);
+        release.countDown();
+
+        for (Future<List<ProductDTO>> result : results) {
+            assertThat(result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                    .extracting(ProductDTO::getId).containsExactly(1L);
+        }
+        verify(productRepository, times(1)).findAllById(anyIterable());
+    }
+
+    private LowStockIndex rebuiltLowStockIndex() {
+        LowStockIndex lowStockIndex = new LowStockIndex(productRepository, catalogVersion, new SimpleMeterRegistry());
+        lowStockIndex.rebuild();
+        return lowStockIndex;
+    }
+
+    private <T> List<Future<T>> submitAll(Callable<T> call) {
+        List<Future<T>> futures = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(callers.submit(call));
+        }
+        return futures;
+    }
+
+    // Attend que tous les appelants sauf le premier soient bloqués sur la requête en cours
+    private void awaitJoined(String flight, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (meterRegistry.counter("products.single_flight.joined", "flight", flight).count() < expected) {
+            assertThat(System.nanoTime()).as("callers joining the flight").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.dto.ProductResponseDTO;
+import com.belvinard.products_api.dto.StockAdjustmentItemResult;
+import com.belvinard.products_api.dto.StockAdjustmentItemResult.Status;
+import com.belvinard.products_api.dto.StockDeltaDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.exceptions.APIException;
+import com.belvinard.products_api.exceptions.InsufficientStockException;
+import com.belvinard.products_api.exceptions.ResourceNotFoundException;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.ProductStockView;
+import com.belvinard.products_api.repository.StockAdjustmentView;
+import com.belvinard.products_api.response.StockAdjustmentResponse;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductServiceStockTest {
+
+    private ProductRepository productRepository;
+    private StockAlertOutbox stockAlertOutbox;
+    private final List<Object> events = new ArrayList<>();
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        stockAlertOutbox = mock(StockAlertOutbox.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogVersion catalogVersion = new CatalogVersion();
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), null, null, null, null,
+                events::add, new LowStockIndex(productRepository, catalogVersion, meterRegistry), stockAlertOutbox,
+                null, catalogVersion, meterRegistry, null);
+    }
+
+    @Test
+    void reservingReturnsTheNewStockAndVersionAndPublishesTheChange() {
+        // La requête décrémente le stock et incrémente la version : le service renvoie la ligne telle quelle
+        Product reserved = product(1L, 3, 8L);
+        when(productRepository.reserveStock(1L, 2)).thenReturn(Optional.of(reserved));
+
+        ProductResponseDTO response = productService.reserveStock(1L, 2);
+
+        assertThat(response.getProduct().getStockQuantity()).isEqualTo(3);
+        assertThat(response.getProduct().getVersion()).isEqualTo(8L);
+        assertThat(response.getAlert()).contains("Keyboard");
+        assertThat(events).containsExactly(ProductChangedEvent.stockChanged(response.getProduct()));
+        verify(stockAlertOutbox).stockChanged(reserved);
+    }
+
+    @Test
+    void reservingMoreThanTheStockIsAConflict() {
+        when(productRepository.reserveStock(1L, 5)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.reserveStock(1L, 5))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Not enough stock to reserve 5 unit(s) of product 1.");
+        assertNothingPublished();
+    }
+
+    @Test
+    void reservingAMissingProductIsNotFound() {
+        when(productRepository.reserveStock(42L, 1)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.reserveStock(42L, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertNothingPublished();
+    }
+
+    @Test
+    void releasingReturnsTheNewStockAndVersionAndPublishesTheChange() {
+        Product released = product(1L, 40, 9L);
+        when(productRepository.releaseStock(1L, 10)).thenReturn(Optional.of(released));
+
+        ProductResponseDTO response = productService.releaseStock(1L, 10);
+
+        assertThat(response.getProduct().getStockQuantity()).isEqualTo(40);
+        assertThat(response.getProduct().getVersion()).isEqualTo(9L);
+        assertThat(response.getAlert()).isNull();
+        assertThat(events).containsExactly(ProductChangedEvent.stockChanged(response.getProduct()));
+        verify(stockAlertOutbox).stockChanged(released);
+    }
+
+    @Test
+    void releasingBeyondTheMaximumStockIsRejected() {
+        when(productRepository.releaseStock(1L, Integer.MAX_VALUE)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.releaseStock(1L, Integer.MAX_VALUE))
+                .isInstanceOf(APIException.class)
+                .hasMessage("Releasing 2147483647 unit(s) would exceed the maximum stock of product 1.");
+        assertNothingPublished();
+    }
+
+    @Test
+    void releasingAMissingProductIsNotFound() {
+        when(productRepository.releaseStock(42L, 1)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.releaseStock(42L, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertNothingPublished();
+    }
+
+    @Test
+    void batchRowsAreLockedInIdOrderBeforeTheUpdate() {
+        when(productRepository.lockStock(new Long[]{1L, 2L, 3L}))
+                .thenReturn(List.of(stock(1L, 10), stock(2L, 10), stock(3L, 10)));
+        when(productRepository.adjustStock(new Long[]{1L, 2L, 3L}, new Integer[]{-1, -2, -3}))
+                .thenReturn(List.of(adjusted(1L, 10, 9, 2L), adjusted(2L, 10, 8, 2L), adjusted(3L, 10, 7, 2L)));
+
+        StockAdjustmentResponse response = productService.adjustStock(List.of(
+                new StockDeltaDTO(3L, -3), new StockDeltaDTO(1L, -1), new StockDeltaDTO(2L, -2)));
+
+        // Deux lots {3, 1} et {1, 3} verrouillent tous deux 1 puis 3 : pas d'interblocage
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).lockStock(new Long[]{1L, 2L, 3L});
+        inOrder.verify(productRepository).adjustStock(new Long[]{1L, 2L, 3L}, new Integer[]{-1, -2, -3});
+        assertThat(response.getResults()).extracting(StockAdjustmentItemResult::getProductId)
+                .containsExactly(3L, 1L, 2L);
+        assertThat(response.getApplied()).isEqualTo(3);
+    }
+
+    @Test
+    void deltasOfTheSameProductAreMerged() {
+        when(productRepository.lockStock(new Long[]{1L, 2L})).thenReturn(List.of(stock(1L, 10), stock(2L, 10)));
+        when(productRepository.adjustStock(new Long[]{1L, 2L}, new Integer[]{-1, 7}))
+                .thenReturn(List.of(adjusted(1L, 10, 9, 2L), adjusted(2L, 10, 17, 2L)));
+
+        StockAdjustmentResponse response = productService.adjustStock(List.of(
+                new StockDeltaDTO(2L, 3), new StockDeltaDTO(1L, -1), new StockDeltaDTO(2L, 4)));
+
+        assertThat(response.getResults()).hasSize(2);
+        assertThat(response.getResults().get(0).getDelta()).isEqualTo(7);
+        assertThat(response.getResults().get(0).getStockQuantity()).isEqualTo(17);
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void rejectedRowsReportTheStockReadUnderTheLock() {
+        // 1 appliqué ; 2 insuffisant ; 3 dépasserait Integer.MAX_VALUE ; 4 n'existe pas
+        when(productRepository.lockStock(new Long[]{1L, 2L, 3L, 4L}))
+                .thenReturn(List.of(stock(1L, 10), stock(2L, 1), stock(3L, Integer.MAX_VALUE - 1)));
+        when(productRepository.adjustStock(new Long[]{1L, 2L, 3L, 4L}, new Integer[]{-8, -2, 5, 1}))
+                .thenReturn(List.of(adjusted(1L, 10, 2, 4L)));
+
+        StockAdjustmentResponse response = productService.adjustStock(List.of(
+                new StockDeltaDTO(1L, -8), new StockDeltaDTO(2L, -2), new StockDeltaDTO(3L, 5),
+                new StockDeltaDTO(4L, 1)));
+
+        assertThat(response.getResults()).extracting(StockAdjustmentItemResult::getStatus).containsExactly(
+                Status.APPLIED, Status.INSUFFICIENT_STOCK, Status.STOCK_OUT_OF_RANGE, Status.NOT_FOUND);
+        assertThat(response.getResults()).extracting(StockAdjustmentItemResult::getStockQuantity)
+                .containsExactly(2, 1, Integer.MAX_VALUE - 1, null);
+        assertThat(response.getApplied()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getEnteredLowStock()).containsExactly(1L);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void mergedDeltasThatOverflowAreRejectedBeforeTouchingTheDatabase() {
+        assertThatThrownBy(() -> productService.adjustStock(List.of(
+                new StockDeltaDTO(1L, Integer.MAX_VALUE), new StockDeltaDTO(1L, 1))))
+                .isInstanceOf(APIException.class)
+                .hasMessage("The deltas for product 1 overflow.");
+        verifyNoInteractions(productRepository);
+    }
+
+    private void assertNothingPublished() {
+        assertThat(events).isEmpty();
+        verify(stockAlertOutbox, never()).stockChanged(any());
+    }
+
+    private static ProductStockView stock(Long id, int stockQuantity) {
+        return new ProductStockView() {
+            @Override
+            public Long getProductId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+        };
+    }
+
+    private static StockAdjustmentView adjusted(Long id, int previousStockQuantity, int stockQuantity, Long version) {
+        return new StockAdjustmentView() {
+            @Override
+            public Long getProductId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Product " + id;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal("9.99");
+            }
+
+            @Override
+            public Integer getPreviousStockQuantity() {
+                return previousStockQuantity;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static Product product(Long id, int stockQuantity, Long version) {
+        Product product = new Product(id, "Keyboard", new BigDecimal("49.90"), stockQuantity);
+        product.setVersion(version);
+        return product;
+    }
+}
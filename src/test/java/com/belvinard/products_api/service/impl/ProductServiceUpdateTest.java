@@ -0,0 +1,115 @@
+package com.belvinard.products_api.service.impl;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.entity.Product;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.exceptions.DuplicateResourceException;
+import com.belvinard.products_api.exceptions.ResourceNotFoundException;
+import com.belvinard.products_api.mapper.ProductMapper;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.service.alert.StockAlertOutbox;
+import com.belvinard.products_api.service.index.CatalogVersion;
+import com.belvinard.products_api.service.index.LowStockIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceUpdateTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("49.90");
+
+    private final List<Object> events = new ArrayList<>();
+    private ProductRepository productRepository;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogVersion catalogVersion = new CatalogVersion();
+        productService = new ProductServiceImpl(productRepository, new ProductMapper(), null, null, null, null,
+                events::add, new LowStockIndex(productRepository, catalogVersion, meterRegistry),
+                mock(StockAlertOutbox.class), null, catalogVersion, meterRegistry, null);
+    }
+
+    @Test
+    void theCurrentVersionUpdatesTheProduct() {
+        when(productRepository.updateReturning(1L, "Keyboard", PRICE, 12, 7L))
+                .thenReturn(Optional.of(product(1L, 12, 8L)));
+
+        ProductDTO updated = productService.updateProduct(1L, update(7L));
+
+        assertThat(updated.getVersion()).isEqualTo(8L);
+        assertThat(events).containsExactly(ProductChangedEvent.updated(updated));
+    }
+
+    @Test
+    void aStaleVersionIsAnOptimisticLockingFailure() {
+        when(productRepository.updateReturning(1L, "Keyboard", PRICE, 12, 6L)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, update(6L)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void aMissingProductIsNotFoundWithOrWithoutAVersion() {
+        when(productRepository.updateReturning(42L, "Keyboard", PRICE, 12, 6L)).thenReturn(Optional.empty());
+        when(productRepository.updateReturning(42L, "Keyboard", PRICE, 12, null)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.updateProduct(42L, update(6L)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.updateProduct(42L, update(null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void withoutAVersionTheLastWriteWins() {
+        // Pas de version : aucune comparaison, et pas de lecture supplémentaire pour qualifier un échec
+        when(productRepository.updateReturning(1L, "Keyboard", PRICE, 12, null))
+                .thenReturn(Optional.of(product(1L, 12, 9L)));
+
+        ProductDTO updated = productService.updateProduct(1L, update(null));
+
+        assertThat(updated.getVersion()).isEqualTo(9L);
+        verify(productRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void aNameTakenByAnotherProductIsADuplicate() {
+        when(productRepository.updateReturning(1L, "Keyboard", PRICE, 12, 7L))
+                .thenThrow(new DataIntegrityViolationException("products_name_key"));
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, update(7L)))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("A product with the name 'Keyboard' already exists.");
+        assertThat(events).isEmpty();
+    }
+
+    private static ProductDTO update(Long version) {
+        return new ProductDTO(null, "Keyboard", PRICE, 12, version);
+    }
+
+    private static Product product(Long id, int stockQuantity, Long version) {
+        Product product = new Product(id, "Keyboard", PRICE, stockQuantity);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,83 @@
+package com.belvinard.products_api.service.index;
+
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LowStockIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final LowStockIndex lowStockIndex =
+            new LowStockIndex(productRepository, catalogVersion, new SimpleMeterRegistry());
+
+    @Test
+    void changesCommittedWhileTheRebuildQueryRunsAreNotLost() {
+        // La requête voit l'état d'avant : 1 et 2 en faible stock ; pendant qu'elle tourne,
+        // 2 est réapprovisionné et 3 passe sous le seuil
+        when(productRepository.findLowStockProductIds()).thenAnswer(invocation -> {
+            lowStockIndex.onProductChanged(ProductChangedEvent.stockChanged(product(2L, 40)));
+            lowStockIndex.onProductChanged(ProductChangedEvent.stockChanged(product(3L, 1)));
+            return List.of(1L, 2L);
+        });
+
+        lowStockIndex.rebuild();
+
+        assertThat(lowStockIndex.productIds()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void changesAfterTheRebuildApplyToTheNewSet() {
+        when(productRepository.findLowStockProductIds()).thenReturn(List.of(1L));
+        lowStockIndex.rebuild();
+
+        lowStockIndex.onProductChanged(ProductChangedEvent.deleted(product(1L, 2)));
+        lowStockIndex.onProductChanged(ProductChangedEvent.created(product(4L, 0)));
+
+        assertThat(lowStockIndex.productIds()).containsExactly(4L);
+    }
+
+    @Test
+    void notReadyUntilTheFirstRebuildCompletes() {
+        when(productRepository.findLowStockProductIds())
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(List.of());
+        assertThat(lowStockIndex.ready()).isFalse();
+
+        assertThatThrownBy(lowStockIndex::rebuild).isInstanceOf(IllegalStateException.class);
+        assertThat(lowStockIndex.ready()).isFalse();
+
+        // Même vide, le premier ensemble chargé change la version : un ETag émis avant ne vaut plus
+        lowStockIndex.rebuild();
+        assertThat(lowStockIndex.ready()).isTrue();
+        assertThat(catalogVersion.current()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildBumpsTheCatalogVersionOnlyWhenTheSetChanges() {
+        when(productRepository.findLowStockProductIds()).thenReturn(List.of(1L), List.of(1L), List.of(1L, 2L));
+        lowStockIndex.rebuild();
+        long version = catalogVersion.current();
+
+        lowStockIndex.rebuild();
+        assertThat(catalogVersion.current()).isEqualTo(version);
+
+        // Par exemple un import ou une écriture d'une autre instance
+        lowStockIndex.rebuild();
+        assertThat(catalogVersion.current()).isGreaterThan(version);
+    }
+
+    private static ProductDTO product(long id, int stockQuantity) {
+        return new ProductDTO(id, "Product " + id, new BigDecimal("9.99"), stockQuantity);
+    }
+}
@@ -0,0 +1,128 @@
+package com.belvinard.products_api.service.stats;
+
+import com.belvinard.products_api.dto.InventoryStatsDTO;
+import com.belvinard.products_api.dto.InventoryStatsDTO.StockBucket;
+import com.belvinard.products_api.dto.ProductDTO;
+import com.belvinard.products_api.event.ProductChangedEvent;
+import com.belvinard.products_api.repository.ProductRepository;
+import com.belvinard.products_api.repository.StockBucketStatsView;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryStatsTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryStats inventoryStats = new InventoryStats(productRepository);
+
+    @Test
+    void bucketRowsAreCombinedIntoOneSnapshot() {
+        when(productRepository.aggregateStockBuckets(5, 50)).thenReturn(List.of(
+                bucket("LOW", 2, "70.00", "25.00", "5.00", "20.00"),
+                bucket("HIGH", 1, "500.00", "10.00", "10.00", "10.00")));
+
+        InventoryStatsDTO snapshot = inventoryStats.snapshot();
+
+        assertThat(snapshot.getProductCount()).isEqualTo(3);
+        assertThat(snapshot.getTotalValue()).isEqualByComparingTo("570.00");
+        assertThat(snapshot.getMinPrice()).isEqualByComparingTo("5.00");
+        assertThat(snapshot.getMaxPrice()).isEqualByComparingTo("20.00");
+        assertThat(snapshot.getAveragePrice()).isEqualByComparingTo("11.67");
+        assertThat(snapshot.getStockBuckets()).isEqualTo(Map.of(
+                StockBucket.OUT_OF_STOCK, 0L, StockBucket.LOW, 2L, StockBucket.NORMAL, 0L, StockBucket.HIGH, 1L));
+        assertThat(snapshot.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void theDatabaseIsOnlyQueriedAgainAfterAWrite() {
+        when(productRepository.aggregateStockBuckets(anyInt(), anyInt()))
+                .thenReturn(List.of(bucket("NORMAL", 1, "20.00", "10.00", "10.00", "10.00")))
+                .thenReturn(List.of(bucket("NORMAL", 1, "24.00", "12.00", "12.00", "12.00")));
+
+        inventoryStats.snapshot();
+        inventoryStats.snapshot();
+        verify(productRepository, times(1)).aggregateStockBuckets(anyInt(), anyInt());
+
+        inventoryStats.onProductChanged(ProductChangedEvent.updated(product(1L, "12.00", 2)));
+
+        assertThat(inventoryStats.snapshot().getTotalValue()).isEqualByComparingTo("24.00");
+        verify(productRepository, times(2)).aggregateStockBuckets(anyInt(), anyInt());
+    }
+
+    @Test
+    void aWriteCommittedWhileTheQueryRunsTriggersAnotherComputation() {
+        // La requête a pu lire l'état d'avant l'écriture : la lecture suivante doit recalculer
+        when(productRepository.aggregateStockBuckets(anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    inventoryStats.onProductChanged(ProductChangedEvent.created(product(2L, "5.00", 4)));
+                    return List.of(bucket("NORMAL", 1, "20.00", "10.00", "10.00", "10.00"));
+                })
+                .thenReturn(List.of(
+                        bucket("LOW", 1, "20.00", "5.00", "5.00", "5.00"),
+                        bucket("NORMAL", 1, "20.00", "10.00", "10.00", "10.00")));
+
+        assertThat(inventoryStats.snapshot().getProductCount()).isEqualTo(1);
+        assertThat(inventoryStats.snapshot().getProductCount()).isEqualTo(2);
+    }
+
+    @Test
+    void aFailedComputationKeepsServingTheLastSnapshot() {
+        when(productRepository.aggregateStockBuckets(anyInt(), anyInt()))
+                .thenReturn(List.of(bucket("NORMAL", 1, "20.00", "10.00", "10.00", "10.00")))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        InventoryStatsDTO computed = inventoryStats.snapshot();
+
+        inventoryStats.onProductChanged(ProductChangedEvent.deleted(product(1L, "10.00", 2)));
+
+        assertThat(inventoryStats.snapshot()).isSameAs(computed);
+    }
+
+    private static ProductDTO product(long id, String price, int stockQuantity) {
+        return new ProductDTO(id, "Product " + id, new BigDecimal(price), stockQuantity);
+    }
+
+    private static StockBucketStatsView bucket(String bucket, long productCount, String totalValue, String priceSum,
+                                               String minPrice, String maxPrice) {
+        return new StockBucketStatsView() {
+            @Override
+            public String getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return productCount;
+            }
+
+            @Override
+            public BigDecimal getTotalValue() {
+                return new BigDecimal(totalValue);
+            }
+
+            @Override
+            public BigDecimal getPriceSum() {
+                return new BigDecimal(priceSum);
+            }
+
+            @Override
+            public BigDecimal getMinPrice() {
+                return new BigDecimal(minPrice);
+            }
+
+            @Override
+            public BigDecimal getMaxPrice() {
+                return new BigDecimal(maxPrice);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.belvinard.products_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTest {
+
+    @Test
+    void parseLineSplitsOnCommas() {
+        assertThat(Csv.parseLine("Smartphone,499.99,10")).containsExactly("Smartphone", "499.99", "10");
+    }
+
+    @Test
+    void parseLineKeepsEmptyFields() {
+        assertThat(Csv.parseLine(",,")).containsExactly("", "", "");
+        assertThat(Csv.parseLine("")).containsExactly("");
+        assertThat(Csv.parseLine("name,")).containsExactly("name", "");
+    }
+
+    @Test
+    void parseLineReadsQuotedFieldsWithCommasAndDoubledQuotes() {
+        assertThat(Csv.parseLine("\"Cable, USB-C\",9.99,\"a \"\"pro\"\" model\""))
+                .containsExactly("Cable, USB-C", "9.99", "a \"pro\" model");
+        assertThat(Csv.parseLine("\"\",1")).containsExactly("", "1");
+    }
+
+    @Test
+    void parseLineKeepsSurroundingSpaces() {
+        assertThat(Csv.parseLine(" Mouse , 19.90")).containsExactly(" Mouse ", " 19.90");
+    }
+
+    @Test
+    void quoteLeavesPlainValuesUntouched() {
+        assertThat(Csv.quote("Smartphone")).isEqualTo("Smartphone");
+        assertThat(Csv.quote("")).isEmpty();
+        assertThat(Csv.quote(null)).isEmpty();
+    }
+
+    @Test
+    void quoteEscapesSeparatorsQuotesAndLineBreaks() {
+        assertThat(Csv.quote("Cable, USB-C")).isEqualTo("\"Cable, USB-C\"");
+        assertThat(Csv.quote("a \"pro\" model")).isEqualTo("\"a \"\"pro\"\" model\"");
+        assertThat(Csv.quote("two\nlines")).isEqualTo("\"two\nlines\"");
+        assertThat(Csv.quote("two\rlines")).isEqualTo("\"two\rlines\"");
+    }
+
+    @Test
+    void quotedValuesParseBackToTheOriginal() {
+        List<String> values = List.of("Cable, USB-C", "a \"pro\" model", "plain", "");
+        String line = String.join(",", values.stream().map(Csv::quote).toList());
+
+        assertThat(Csv.parseLine(line)).isEqualTo(values);
+    }
+}